@@ -0,0 +1,93 @@
+package chess.engine;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks of the Board calls made for every move of a game. All of them start from the same
+ * midgame position with the bottom team to move.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dorg.slf4j.simpleLogger.defaultLogLevel=warn")
+@State(Scope.Thread)
+public class BoardBenchmark {
+
+  private Board midgame;
+  private Board board;
+  private String fen;
+  private int move;
+
+  /**
+   * Sets up the position. The copy kept in midgame is never changed.
+   */
+  @Setup
+  public void setup() {
+    midgame = Positions.midgame();
+    board = midgame.getDeepCopy();
+    fen = midgame.toFen();
+    move = Move.of(Bitboards.square(6, 0), Bitboards.square(5, 0), 0);
+  }
+
+  /**
+   * Selects a pawn and moves it, then resets the board. Subtract resetBoard to get the cost of
+   * the move alone.
+   */
+  @Benchmark
+  public boolean selectAndMove() {
+    boolean moved = board.selectPieceAt(6, 0) && board.tryGoTo(5, 0);
+    board.reset(midgame);
+    return moved;
+  }
+
+  @Benchmark
+  public boolean isSquareUnderAttack() {
+    return board.isSquareUnderAttack(5, 5, false, false);
+  }
+
+  /**
+   * Computes the game state of the position after a move. Taking the move back restores the state
+   * of the position before it, so only the new position is evaluated.
+   */
+  @Benchmark
+  public BoardInterface.State getGameState() {
+    board.makeMove(move);
+    BoardInterface.State state = board.getGameState();
+    board.unmakeMove();
+    return state;
+  }
+
+  @Benchmark
+  public Board getDeepCopy() {
+    return board.getDeepCopy();
+  }
+
+  @Benchmark
+  public Board resetBoard() {
+    board.reset(midgame);
+    return board;
+  }
+
+  @Benchmark
+  public Board setupFromFen() {
+    board.setupFromFen(fen);
+    return board;
+  }
+
+  @Benchmark
+  public String toFen() {
+    return board.toFen();
+  }
+
+}
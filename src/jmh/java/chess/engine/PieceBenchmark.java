@@ -0,0 +1,64 @@
+package chess.engine;
+
+import chess.engine.pieces.Piece;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks of the Piece calls behind move validation, in the same midgame position as
+ * BoardBenchmark.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dorg.slf4j.simpleLogger.defaultLogLevel=warn")
+@State(Scope.Thread)
+public class PieceBenchmark {
+
+  private Board board;
+  private Piece knight;
+  private Piece queen;
+
+  /**
+   * Sets up the position and picks the pieces to benchmark.
+   */
+  @Setup
+  public void setup() {
+    board = Positions.midgame();
+    knight = board.getAt(7, 1);
+    queen = board.getAt(3, 7);
+  }
+
+  /**
+   * Runs the full rule chain of a knight move, including the Action it is given.
+   */
+  @Benchmark
+  public boolean isAllowed() {
+    return knight.isAllowed(board, new Action(knight, 5, 2, Action.Type.Move));
+  }
+
+  /**
+   * Runs the full rule chain of a queen capturing a pawn, which also has to check for overlapping
+   * pieces.
+   */
+  @Benchmark
+  public boolean isAllowedAttack() {
+    return queen.isAllowed(board, new Action(queen, 1, 7, Action.Type.Attack));
+  }
+
+  @Benchmark
+  public Piece getDeepCopy() {
+    return queen.getDeepCopy();
+  }
+
+}
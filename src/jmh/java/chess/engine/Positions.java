@@ -0,0 +1,39 @@
+package chess.engine;
+
+import java.util.Arrays;
+
+/**
+ * Positions shared by the benchmarks.
+ */
+final class Positions {
+
+  /**
+   * The moves of a short open game, as {fromRow, fromCol, toRow, toCol}. The bottom team is to move
+   * after the last one, with most pieces still on the board.
+   */
+  private static final int[][] MIDGAME = {
+      {6, 4, 4, 4}, {1, 4, 3, 4}, {7, 6, 5, 5}, {0, 1, 2, 2}, {7, 5, 4, 2}, {0, 6, 2, 5},
+      {5, 5, 3, 6}, {1, 3, 3, 3}, {4, 4, 3, 3}, {2, 5, 3, 3}, {3, 6, 1, 5}, {0, 4, 1, 5},
+      {7, 3, 3, 7}, {1, 6, 2, 6}, {4, 2, 3, 3}, {0, 2, 2, 4}
+  };
+
+  private Positions() {
+  }
+
+  /**
+   * Returns a new board in a midgame position, independent of the shared Board instance.
+   */
+  static Board midgame() {
+    Board board = Board.create();
+    board.setupStandardBoard(false);
+
+    for (int[] move : MIDGAME) {
+      if (!board.selectPieceAt(move[0], move[1]) || !board.tryGoTo(move[2], move[3])) {
+        throw new IllegalStateException("Illegal setup move " + Arrays.toString(move));
+      }
+    }
+
+    return board.getDeepCopy();
+  }
+
+}
@@ -0,0 +1,78 @@
+package chess.engine.pgn;
+
+import chess.engine.Board;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks of replaying an archive of games held in memory, so that only parsing and the board
+ * are measured. Divide by the number of games to get the time per game.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dorg.slf4j.simpleLogger.defaultLogLevel=warn")
+@State(Scope.Thread)
+public class PgnBenchmark {
+
+  private static final int GAMES = 100;
+  private static final String GAME = "[Event \"Benchmark\"]\n[Result \"1/2-1/2\"]\n\n"
+      + "1. e4 e5 2. Nf3 Nc6 3. Bb5 a6 4. Ba4 Nf6 5. O-O Be7 6. Re1 b5 7. Bb3 d6 8. c3 O-O\n"
+      + "9. h3 Nb8 10. d4 Nbd7 11. c4 c6 12. cxb5 axb5 13. Nc3 Bb7 14. Bg5 b4 15. Nb1 h6\n"
+      + "16. Bh4 c5 17. dxe5 Nxe4 18. Bxe7 Qxe7 19. exd6 Qf6 20. Nbd2 Nxd6 21. Nc4 Nxc4\n"
+      + "22. Bxc4 Nb6 23. Ne5 Rae8 24. Bxf7+ Rxf7 25. Nxf7 Rxe1+ 26. Qxe1 Kxf7 27. Qe3 Qg5\n"
+      + "28. Qxg5 hxg5 29. b3 Ke6 30. a3 Kd6 31. axb4 cxb4 32. Ra5 Nd5 33. f3 Bc8 34. Kf2 Bf5\n"
+      + "35. Ra7 g6 36. Ra6+ Kc5 37. Ke1 Nf4 38. g3 Nxh3 39. Kd2 Kb5 40. Rd6 Kc5 41. Ra6 Nf2\n"
+      + "42. g4 Bd3 43. Re6 1/2-1/2\n\n";
+
+  private byte[] archive;
+  private Board board;
+
+  /**
+   * Creates the archive and replays its first game, which is the one written by writeGame.
+   */
+  @Setup
+  public void setup() throws IOException {
+    StringBuilder pgn = new StringBuilder(GAME.length() * GAMES);
+    for (int i = 0; i < GAMES; i++) {
+      pgn.append(GAME);
+    }
+    archive = pgn.toString().getBytes(StandardCharsets.US_ASCII);
+    board = Board.create();
+    new PgnReader(Channels.newChannel(new ByteArrayInputStream(archive))).readGame(board);
+  }
+
+  @Benchmark
+  public long readGames() throws IOException {
+    Board replay = Board.create();
+    try (PgnReader reader = new PgnReader(
+        Channels.newChannel(new ByteArrayInputStream(archive)))) {
+      while (reader.readGame(replay)) {
+        continue;
+      }
+      return reader.getGames();
+    }
+  }
+
+  @Benchmark
+  public String writeGame() throws IOException {
+    StringBuilder out = new StringBuilder(1024);
+    new PgnWriter(out).writeGame(board);
+    return out.toString();
+  }
+
+}
@@ -0,0 +1,53 @@
+package chess.engine.search;
+
+import chess.engine.Board;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks of a fixed depth search from an opening position. Divide the nodes reported by the
+ * search by the time to get the nodes per second.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dorg.slf4j.simpleLogger.defaultLogLevel=warn")
+@State(Scope.Thread)
+public class SearchBenchmark {
+
+  private static final String ITALIAN =
+      "r1bqk1nr/pppp1ppp/2n5/2b1p3/2B1P3/5N2/PPPP1PPP/RNBQK2R w KQkq - 4 4";
+
+  @Param({"4", "5"})
+  public int depth;
+
+  private Search search;
+
+  /**
+   * Creates the board and the search, which are reused by every invocation.
+   */
+  @Setup
+  public void setup() {
+    Board board = Board.create();
+    board.setupFromFen(ITALIAN);
+    search = new Search(board);
+    search.setMaxDepth(depth);
+  }
+
+  @Benchmark
+  public SearchResult search() {
+    return search.search();
+  }
+
+}
@@ -3,22 +3,28 @@ package chess.engine;
 import chess.engine.pieces.Piece;
 import chess.engine.pieces.Square;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Optional;
-
+/**
+ * A move by one piece, as seen by the rules, the history and the UI. The move itself is packed into
+ * an int the same way as in Move, and its effects on the board are derived from the flags the rules
+ * set on it. Creating an action copies nothing but the source square of the piece. A copy of the
+ * piece is only made when it is asked for after the piece has moved on.
+ */
 public final class Action {
 
   public enum Type {
     Move, Attack, Castling
   }
 
-  private String note;
   private Type type;
   private final Piece piece;
   private final int row;
   private final int col;
-  private final List<Runnable> acts = new ArrayList<>();
+  private int move;
+  private final boolean hadMoved;
+  private boolean promoting;
+  private boolean cancelled;
+  private String note;
+  private Piece view;
 
   /**
    * Creates an action-object to describe a move by one Piece.
@@ -29,10 +35,14 @@ public final class Action {
    * @param type The type of the move, either Attack or Move.
    */
   public Action(Piece piece, int row, int col, Type type) {
-    this.piece = piece.getDeepCopy();
+    this.piece = piece;
     this.row = row;
     this.col = col;
     this.type = type;
+    this.hadMoved = piece.hasMoved();
+    move = Move.of(Bitboards.square(piece.row(), piece.col()),
+        Bitboards.isInside(row, col) ? Bitboards.square(row, col) : 0,
+        type == Type.Attack ? Move.CAPTURE : Move.NONE);
   }
 
   public Action(Piece piece, Square target, Type type) {
@@ -40,13 +50,17 @@ public final class Action {
   }
 
   /**
-   * Executes all acts in the action.
+   * Creates an action for a packed move of the provided piece.
    *
-   * @return Returns the amount of acts executed.
+   * @param piece The piece which is executing the move, still standing on its source square.
+   * @param move The packed move. See Move for the encoding.
    */
-  int execute() {
-    acts.forEach(Runnable::run);
-    return acts.size();
+  Action(Piece piece, int move) {
+    this(piece, Bitboards.row(Move.to(move)), Bitboards.col(Move.to(move)),
+        Move.isCastling(move) ? Type.Castling
+            : Move.isCapture(move) && !Move.isEnPassant(move) ? Type.Attack : Type.Move);
+    addFlags(Move.flags(move) & (Move.EN_PASSANT | Move.CASTLING));
+    this.move |= move & 0x70000;
   }
 
   public void setType(Type type) {
@@ -54,23 +68,49 @@ public final class Action {
   }
 
   /**
-   * Inserts an act into this action. All acts are executed in the order they appear in the list.
+   * Adds flags to the move, which decide what executing the action does to the board.
    *
-   * @param first Whether to add this act first or last in the list.
-   * @param act The act itself.
+   * @param flags Any of the flags in Move, i.e Move.EN_PASSANT.
+   */
+  public void addFlags(int flags) {
+    move |= flags << 12;
+  }
+
+  /**
+   * Marks the action as moving a pawn to its last row, after which the board waits for a promotion.
    */
-  public void insertAct(boolean first, Runnable act) {
-    acts.add(first ? 0 : acts.size(), act);
+  public void setPromoting() {
+    promoting = true;
+  }
+
+  /**
+   * Prevents the action from being executed, even if all rules are passed.
+   */
+  public void cancel() {
+    cancelled = true;
+  }
+
+  public boolean isPromoting() {
+    return promoting;
   }
 
-  public void clearActs() {
-    acts.clear();
+  public boolean isCancelled() {
+    return cancelled;
   }
 
   public void setNote(String note) {
     this.note = note;
   }
 
+  /**
+   * The move of this action. The target square is zero if the target is outside the board.
+   *
+   * @return The packed move, with the flags set by the rules. See Move for the encoding.
+   */
+  public int move() {
+    return move;
+  }
+
   /**
    * The targeted row of this action.
    *
@@ -90,7 +130,8 @@ public final class Action {
   }
 
   public Square sourceSquare() {
-    return piece.pos();
+    int from = Move.from(move);
+    return Square.of(Bitboards.row(from), Bitboards.col(from));
   }
 
   public Square targetSquare() {
@@ -98,14 +139,36 @@ public final class Action {
   }
 
   /**
-   * The piece executing this action.
+   * The piece executing this action, as it was when the action was created. The piece itself is
+   * returned as long as it has not moved, otherwise a copy on the source square.
    *
    * @return A piece object.
    */
   public Piece getPiece() {
+    int from = Move.from(move);
+    if (view == null && piece.isAt(Bitboards.row(from), Bitboards.col(from))
+        && piece.hasMoved() == hadMoved) {
+      return piece;
+    }
+
+    if (view == null) {
+      view = piece.getDeepCopy();
+      view.restore(Bitboards.row(from), Bitboards.col(from), hadMoved);
+    }
+    return view;
+  }
+
+  /**
+   * The piece executing this action, wherever it currently is.
+   */
+  Piece mover() {
     return piece;
   }
 
+  boolean hadMoved() {
+    return hadMoved;
+  }
+
   /**
    * The type of this action.
    *
@@ -121,14 +184,34 @@ public final class Action {
    * @return A string in the format "Piece Type From(row, column) To(row, column) Note(if any)".
    */
   public String toString() {
-    return String.format("%s %s (%d, %d) (%d, %d) %s",
-        piece.getClass().getSimpleName(),
-        type.toString(),
-        piece.row(),
-        piece.col(),
-        row,
-        col,
-        Optional.ofNullable(note).orElse("")).trim();
+    int from = Move.from(move);
+    StringBuilder builder = new StringBuilder(48)
+        .append(piece.getClass().getSimpleName()).append(' ')
+        .append(type).append(" (")
+        .append(Bitboards.row(from)).append(", ").append(Bitboards.col(from)).append(") (")
+        .append(row).append(", ").append(col).append(')');
+
+    String note = getNote();
+    if (note != null) {
+      builder.append(' ').append(note);
+    }
+    return builder.toString();
+  }
+
+  private String getNote() {
+    if (note != null) {
+      return note;
+    }
+    if (promoting) {
+      return "Pawn Promotion";
+    }
+    if (Move.isEnPassant(move)) {
+      return "En Passant";
+    }
+    if (Move.isCastling(move)) {
+      return "Castling";
+    }
+    return null;
   }
 
 }
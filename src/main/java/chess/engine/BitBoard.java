@@ -0,0 +1,1059 @@
+package chess.engine;
+
+import chess.engine.pieces.Bishop;
+import chess.engine.pieces.King;
+import chess.engine.pieces.Knight;
+import chess.engine.pieces.Pawn;
+import chess.engine.pieces.Piece;
+import chess.engine.pieces.PieceFactory;
+import chess.engine.pieces.Queen;
+import chess.engine.pieces.Rook;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A board storing its position in twelve bitboards, one per piece type and team, along with an
+ * occupancy mask for each team. Moves are validated on the bitboards alone; the piece objects
+ * returned by {@link #getPieces()} are only updated once a move has been made.
+ *
+ * <p>Like {@link Board}, a bitboard is not thread-safe and must only be used by one thread at a
+ * time.
+ */
+public final class BitBoard implements BoardInterface {
+
+  static final int PAWN = 0;
+  static final int KNIGHT = 1;
+  static final int BISHOP = 2;
+  static final int ROOK = 3;
+  static final int QUEEN = 4;
+  static final int KING = 5;
+  static final int TYPES = 6;
+  private static final String PIECE_CHARS = "PNBRQK";
+  private static final PieceFactory[] FACTORIES = {
+      Pawn::new, Knight::new, Bishop::new, Rook::new, Queen::new, King::new
+  };
+
+  static final int BOTTOM = 0;
+  static final int TOP = 1;
+
+  private static final int[] STANDARD_RANK = {ROOK, KNIGHT, BISHOP, QUEEN, KING, BISHOP, KNIGHT,
+      ROOK};
+
+  private final long[] pieceBoards = new long[TYPES * 2];
+  private final long[] teamBoards = new long[2];
+  private long occupied;
+  private long pieceKey;
+
+  private final long[] savedBoards = new long[TYPES * 2];
+  private final long[] savedTeams = new long[2];
+  private final MoveList legalMoves = new MoveList();
+  private final KingSafety kingSafety = new KingSafety();
+
+  /**
+   * One entry per move made by makeMove(int), holding the move in bits 0-18, the captured piece
+   * plus one in bits 19-23, the en passant square plus one in bits 24-30 and the castling rooks
+   * from bit 32 onwards.
+   */
+  private long[] undoStack = new long[64];
+  private int undoSize;
+
+  private Piece[] squares = new Piece[Board.BOARD_LENGTH * Board.BOARD_LENGTH];
+  private int[] castlingRooks = {-1, -1, -1, -1};
+  private int enPassantSquare = -1;
+  private int promotionSquare = -1;
+  private int selectedSquare = -1;
+  private int turn;
+
+  private State gameState;
+  private boolean noLegalMoves;
+  private GameType gameType = GameType.Standard;
+  private MoveLog history = new MoveLog();
+  private volatile Snapshot snapshot;
+
+  private final Logger logger = LoggerFactory.getLogger(BitBoard.class);
+
+  @Override
+  public void setupStandardBoard(boolean topFirst) {
+    setupEmptyBoard(topFirst);
+    gameType = GameType.Standard;
+    setupFirstRanks(STANDARD_RANK);
+    publish();
+    logger.debug("Standard board created.");
+  }
+
+  @Override
+  public void setupFischerBoard(boolean topFirst) {
+    setupEmptyBoard(topFirst);
+    gameType = GameType.Fischer;
+
+    Random randomNumber = new Random();
+    int[] rank = new int[Board.BOARD_LENGTH];
+    Arrays.fill(rank, -1);
+
+    rank[randomNumber.nextInt(4) * 2] = BISHOP;
+    rank[randomNumber.nextInt(4) * 2 + 1] = BISHOP;
+    for (int type : new int[] {QUEEN, KNIGHT, KNIGHT}) {
+      int col = randomNumber.nextInt(Board.BOARD_LENGTH);
+      while (rank[col] >= 0) {
+        col = randomNumber.nextInt(Board.BOARD_LENGTH);
+      }
+      rank[col] = type;
+    }
+
+    int[] remaining = {ROOK, KING, ROOK};
+    for (int col = 0, i = 0; col < Board.BOARD_LENGTH; col++) {
+      if (rank[col] < 0) {
+        rank[col] = remaining[i++];
+      }
+    }
+
+    setupFirstRanks(rank);
+    publish();
+    logger.debug("Fischer board created.");
+  }
+
+  @Override
+  public void setupEmptyBoard(boolean topFirst) {
+    clear();
+    turn = topFirst ? 0 : 1;
+    gameType = GameType.Standard;
+    history.clear();
+    publish();
+    logger.debug("Empty board setup.");
+  }
+
+  /**
+   * Replaces the position with the provided pieces, keeping references to them. Lets Board run
+   * the move generator on its own position.
+   *
+   * @param pieces The pieces on the board.
+   * @param turn The current turn.
+   * @param enPassantSquare The square a pawn may move to capturing en passant, or -1 if none.
+   * @param gameType The type of the game.
+   */
+  void setPosition(List<Piece> pieces, int turn, int enPassantSquare, GameType gameType) {
+    clear();
+    for (Piece piece : pieces) {
+      addPiece(piece);
+    }
+
+    this.turn = turn;
+    this.enPassantSquare = enPassantSquare;
+    this.gameType = gameType;
+  }
+
+  private void clear() {
+    Arrays.fill(pieceBoards, 0);
+    Arrays.fill(teamBoards, 0);
+    occupied = 0;
+    pieceKey = 0;
+    Arrays.fill(squares, null);
+    Arrays.fill(castlingRooks, -1);
+    enPassantSquare = -1;
+    promotionSquare = -1;
+    selectedSquare = -1;
+    gameState = null;
+    undoSize = 0;
+  }
+
+  /**
+   * Adds a piece to the board. Kings and rooks that have not moved are given castling rights.
+   *
+   * @param piece The piece to add. Passed by reference.
+   */
+  public void addPiece(Piece piece) {
+    int square = Bitboards.square(piece.row(), piece.col());
+    toggle(indexOf(piece), square);
+    squares[square] = piece;
+    updateCastlingRooks(piece.isTop() ? TOP : BOTTOM);
+  }
+
+  @Override
+  public Action getLastMove() {
+    if (history.size() == 0) {
+      return null;
+    }
+
+    return history.toAction(history.size() - 1);
+  }
+
+  @Override
+  public GameType getGameType() {
+    return gameType;
+  }
+
+  @Override
+  public boolean selectPieceAt(int row, int col) {
+    boolean success = select(row, col);
+    publish();
+    return success;
+  }
+
+  private boolean select(int row, int col) {
+    if (isPromoting()) {
+      return false;
+    }
+
+    logger.info("Attempting piece selection ({}, {}).", row, col);
+
+    clearSelected();
+    if (!Bitboards.isInside(row, col)) {
+      return false;
+    }
+
+    int square = Bitboards.square(row, col);
+    if ((teamBoards[sideToMove()] & Bitboards.bit(square)) == 0) {
+      if ((occupied & Bitboards.bit(square)) != 0) {
+        logger.debug("Piece selection of wrong team.");
+      }
+      return false;
+    }
+
+    selectedSquare = square;
+    squares[square].setState(Piece.State.Selected);
+    logger.debug("Piece selection successful.");
+    return true;
+  }
+
+  @Override
+  public boolean hasSelected() {
+    return selectedSquare >= 0;
+  }
+
+  @Override
+  public boolean tryGoTo(int row, int col) {
+    if (isPromoting()) {
+      return false;
+    }
+
+    logger.info("Attempting move ({}, {}).", row, col);
+
+    if (selectedSquare < 0) {
+      logger.debug("No piece selected.");
+      return false;
+    }
+
+    int move = Move.NONE;
+    if (Bitboards.isInside(row, col)) {
+      move = findMove(selectedSquare, Bitboards.square(row, col));
+    }
+
+    if (move == Move.NONE) {
+      logger.debug("Move disallowed.");
+      return false;
+    }
+
+    clearSelected();
+    commitMove(move);
+    publish();
+    logger.debug("Move successful.");
+    return true;
+  }
+
+  @Override
+  public boolean doCastling(boolean queenSide) {
+    if (isPromoting()) {
+      return false;
+    }
+
+    logger.info("Attempting castling (queenSide = {}).", queenSide);
+
+    int team = sideToMove();
+    int king = kingSquare(team);
+    if (selectedSquare >= 0 && selectedSquare != king) {
+      logger.debug("Selected piece not of type King.");
+      return false;
+    }
+
+    if (!canCastle(team, queenSide)) {
+      logger.debug("Castling not allowed.");
+      return false;
+    }
+
+    clearSelected();
+    commitMove(Move.of(king, Bitboards.square(Bitboards.row(king), queenSide ? 2 : 6),
+        Move.CASTLING));
+    publish();
+    logger.debug("Castling successful.");
+    return true;
+  }
+
+  @Override
+  public void generateLegalMoves(MoveList moves) {
+    generateLegalMoves(moves, sideToMove());
+  }
+
+  /**
+   * Writes all legal moves of the provided team into the list, replacing its previous contents.
+   *
+   * @param moves The list to fill.
+   * @param isTop Whether to generate the moves of the top or bottom team.
+   */
+  void generateLegalMoves(MoveList moves, boolean isTop) {
+    generateLegalMoves(moves, isTop ? TOP : BOTTOM);
+  }
+
+  /**
+   * Makes a move in place on the bitboards. The piece objects returned by getPieces() and
+   * getAt(int, int) are left untouched, so every move made this way should be taken back before
+   * the board is used for anything else than analysis. Moves made through tryGoTo(int, int) or
+   * doCastling(boolean) can not be taken back.
+   *
+   * @param move The packed move. See Move for the encoding.
+   */
+  @Override
+  public void makeMove(int move) {
+    int from = Move.from(move);
+    int to = Move.to(move);
+    int index = indexAt(from);
+    int team = index / TYPES;
+    int capturedIndex = -1;
+
+    if (undoSize == undoStack.length) {
+      undoStack = Arrays.copyOf(undoStack, undoSize * 2);
+    }
+    long undo = move | (long) (enPassantSquare + 1) << 24 | packCastlingRooks() << 32;
+
+    if (Move.isCastling(move)) {
+      boolean queenSide = Bitboards.col(to) == 2;
+      int rook = castlingRooks[team * 2 + (queenSide ? 0 : 1)];
+      toggle(index, from);
+      toggle(ROOK + team * TYPES, rook);
+      toggle(index, to);
+      toggle(ROOK + team * TYPES, Bitboards.square(Bitboards.row(from), queenSide ? 3 : 5));
+    } else {
+      int captured = Move.isEnPassant(move)
+          ? Bitboards.square(Bitboards.row(from), Bitboards.col(to)) : to;
+      capturedIndex = indexAt(captured);
+      if (capturedIndex >= 0) {
+        toggle(capturedIndex, captured);
+      }
+
+      toggle(index, from);
+      toggle(Move.isPromotion(move) ? typeOf(Move.promotion(move)) + team * TYPES : index, to);
+    }
+    undoStack[undoSize++] = undo | (long) (capturedIndex + 1) << 19;
+
+    for (int i = 0; i < castlingRooks.length; i++) {
+      if (castlingRooks[i] == from || castlingRooks[i] == to) {
+        castlingRooks[i] = -1;
+      }
+    }
+    if (index % TYPES == KING) {
+      castlingRooks[team * 2] = -1;
+      castlingRooks[team * 2 + 1] = -1;
+    }
+
+    enPassantSquare = -1;
+    if (index % TYPES == PAWN && Math.abs(to - from) == 2 * Board.BOARD_LENGTH) {
+      enPassantSquare = (from + to) / 2;
+    }
+
+    turn++;
+    gameState = null;
+  }
+
+  @Override
+  public void unmakeMove() {
+    long undo = undoStack[--undoSize];
+    int move = (int) (undo & 0x7FFFF);
+    int capturedIndex = (int) (undo >>> 19 & 0x1F) - 1;
+    enPassantSquare = (int) (undo >>> 24 & 0x7F) - 1;
+    unpackCastlingRooks(undo >>> 32);
+    turn--;
+    gameState = null;
+
+    int from = Move.from(move);
+    int to = Move.to(move);
+    int index = indexAt(to);
+    int team = index / TYPES;
+
+    if (Move.isCastling(move)) {
+      boolean queenSide = Bitboards.col(to) == 2;
+      toggle(index, to);
+      toggle(ROOK + team * TYPES, Bitboards.square(Bitboards.row(from), queenSide ? 3 : 5));
+      toggle(index, from);
+      toggle(ROOK + team * TYPES, castlingRooks[team * 2 + (queenSide ? 0 : 1)]);
+      return;
+    }
+
+    toggle(index, to);
+    toggle(Move.isPromotion(move) ? PAWN + team * TYPES : index, from);
+    if (capturedIndex >= 0) {
+      toggle(capturedIndex, Move.isEnPassant(move)
+          ? Bitboards.square(Bitboards.row(from), Bitboards.col(to)) : to);
+    }
+  }
+
+  @Override
+  public boolean isKingInCheck(boolean isTop) {
+    return isKingAttacked(isTop ? TOP : BOTTOM);
+  }
+
+  @Override
+  public boolean isTeamInCheckmate(boolean isTop) {
+    return isKingInCheck(isTop) && !hasLegalMoves(isTop);
+  }
+
+  @Override
+  public boolean isTeamInStalemate(boolean isTop) {
+    return !isKingInCheck(isTop) && !hasLegalMoves(isTop);
+  }
+
+  /**
+   * Returns whether or not a team has any legal move, read from the game state if it is the
+   * team's turn.
+   */
+  private boolean hasLegalMoves(boolean isTop) {
+    if (isTop == isTopTurn()) {
+      getGameState();
+      return !noLegalMoves;
+    }
+
+    return hasLegalMove(isTop ? TOP : BOTTOM);
+  }
+
+  @Override
+  public boolean isGameADraw() {
+    if (gameType != GameType.Standard) {
+      return false;
+    }
+
+    return Material.isInsufficient(Material.signature(pieceBoards));
+  }
+
+  /**
+   * Returns the state of the game for the team whose turn it is. The state is evaluated once per
+   * position, from a single legal move generation, and kept until the position changes.
+   *
+   * @return The state of the game.
+   */
+  @Override
+  public State getGameState() {
+    if (gameState == null) {
+      boolean inCheck = isKingInCheck(isTopTurn());
+      noLegalMoves = !hasLegalMove(sideToMove());
+
+      if (inCheck && noLegalMoves) {
+        gameState = State.Checkmate;
+      } else if (isGameADraw()) {
+        gameState = State.Draw;
+      } else if (inCheck) {
+        gameState = State.Check;
+      } else {
+        gameState = noLegalMoves ? State.Stalemate : State.Normal;
+      }
+    }
+
+    return gameState;
+  }
+
+  @Override
+  public Snapshot getSnapshot() {
+    return snapshot;
+  }
+
+  /**
+   * Replaces the snapshot with one of the current position, see Board.
+   */
+  private void publish() {
+    long moved = 0;
+    for (long bits = occupied; bits != 0; bits &= bits - 1) {
+      int square = Long.numberOfTrailingZeros(bits);
+      if (squares[square].hasMoved()) {
+        moved |= Bitboards.bit(square);
+      }
+    }
+    snapshot = new Snapshot(pieceBoards, moved, selectedSquare, turn, isTopTurn(), getGameState(),
+        isPromoting(), positionKey());
+  }
+
+  @Override
+  public boolean isPromoting() {
+    return promotionSquare >= 0;
+  }
+
+  @Override
+  public boolean promoteTo(Promotion promotion) {
+    if (!isPromoting()) {
+      return false;
+    }
+
+    if (promotion == null) {
+      return false;
+    }
+
+    logger.info("Attempting promotion.");
+
+    int square = promotionSquare;
+    Piece pawn = squares[square];
+    int team = pawn.isTop() ? TOP : BOTTOM;
+    int type = typeOf(promotion);
+
+    toggle(PAWN + team * TYPES, square);
+    toggle(type + team * TYPES, square);
+
+    Piece promoted = createPiece(type, pawn.row(), pawn.col(), pawn.isTop());
+    promoted.setState(Piece.State.Alive);
+    squares[square] = promoted;
+    promotionSquare = -1;
+    history.setPromotion(promotion);
+
+    pawn.setState(Piece.State.Promoted);
+    publish();
+    logger.debug("Promotion successful.");
+
+    return true;
+  }
+
+  @Override
+  public boolean isTopTurn() {
+    return turn % 2 == 0;
+  }
+
+  @Override
+  public int getTurn() {
+    return turn;
+  }
+
+  @Override
+  public long positionKey() {
+    int castlingRights = 0;
+    for (int i = 0; i < castlingRooks.length; i++) {
+      if (castlingRooks[i] >= 0) {
+        castlingRights |= 1 << i;
+      }
+    }
+
+    return pieceKey ^ Zobrist.state(castlingRights, enPassantSquare, isTopTurn(),
+        pieceBoards[PAWN + sideToMove() * TYPES]);
+  }
+
+  @Override
+  public List<Piece> getPieces() {
+    List<Piece> pieces = new ArrayList<>();
+    for (Piece piece : squares) {
+      if (piece != null) {
+        pieces.add(piece);
+      }
+    }
+    return pieces;
+  }
+
+  @Override
+  public Piece getAt(int row, int col) {
+    if (!Bitboards.isInside(row, col)) {
+      return null;
+    }
+
+    return squares[Bitboards.square(row, col)];
+  }
+
+  /**
+   * Returns all previously executed actions.
+   *
+   * @return An unmodifiable list of Action-objects.
+   */
+  public List<Action> getHistory() {
+    return history.asList();
+  }
+
+  @Override
+  public BitBoard getDeepCopy() {
+    BitBoard copy = new BitBoard();
+    copy.reset(this);
+    return copy;
+  }
+
+  @Override
+  public void reset(BoardInterface copy) {
+    if (!(copy instanceof BitBoard)) {
+      return;
+    }
+
+    BitBoard other = (BitBoard) copy;
+    System.arraycopy(other.pieceBoards, 0, pieceBoards, 0, pieceBoards.length);
+    System.arraycopy(other.teamBoards, 0, teamBoards, 0, teamBoards.length);
+    occupied = other.occupied;
+    pieceKey = other.pieceKey;
+
+    for (int i = 0; i < squares.length; i++) {
+      Piece piece = other.squares[i];
+      squares[i] = piece == null ? null : piece.getDeepCopy();
+    }
+    castlingRooks = other.castlingRooks.clone();
+    enPassantSquare = other.enPassantSquare;
+    promotionSquare = other.promotionSquare;
+    selectedSquare = other.selectedSquare;
+    turn = other.turn;
+    gameState = other.gameState;
+    noLegalMoves = other.noLegalMoves;
+    gameType = other.gameType;
+    history = other.history.copy();
+    undoSize = 0;
+    snapshot = other.snapshot;
+  }
+
+  private int sideToMove() {
+    return isTopTurn() ? TOP : BOTTOM;
+  }
+
+  private void clearSelected() {
+    if (selectedSquare < 0) {
+      return;
+    }
+
+    squares[selectedSquare].setState(Piece.State.Alive);
+    selectedSquare = -1;
+  }
+
+  private void setupFirstRanks(int[] rank) {
+    for (int col = 0; col < Board.BOARD_LENGTH; col++) {
+      addPiece(createPiece(rank[col], 0, col, true));
+      addPiece(createPiece(rank[col], Board.BOARD_LENGTH - 1, col, false));
+      addPiece(new Pawn(1, col, true));
+      addPiece(new Pawn(Board.BOARD_LENGTH - 2, col, false));
+    }
+  }
+
+  private void toggle(int index, int square) {
+    long bit = Bitboards.bit(square);
+    pieceBoards[index] ^= bit;
+    teamBoards[index / TYPES] ^= bit;
+    occupied ^= bit;
+    pieceKey ^= Zobrist.piece(index, square);
+    gameState = null;
+  }
+
+  private int indexAt(int square) {
+    long bit = Bitboards.bit(square);
+    if ((occupied & bit) == 0) {
+      return -1;
+    }
+
+    for (int i = 0; i < pieceBoards.length; i++) {
+      if ((pieceBoards[i] & bit) != 0) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private int kingSquare(int team) {
+    long king = pieceBoards[KING + team * TYPES];
+    return king == 0 ? -1 : Long.numberOfTrailingZeros(king);
+  }
+
+  /**
+   * Gives castling rights to the outermost unmoved rooks on the same row as an unmoved king.
+   */
+  private void updateCastlingRooks(int team) {
+    castlingRooks[team * 2] = -1;
+    castlingRooks[team * 2 + 1] = -1;
+
+    int king = kingSquare(team);
+    if (king < 0 || squares[king].hasMoved()) {
+      return;
+    }
+
+    long rooks = pieceBoards[ROOK + team * TYPES];
+    while (rooks != 0) {
+      int rook = Long.numberOfTrailingZeros(rooks);
+      rooks &= rooks - 1;
+
+      if (Bitboards.row(rook) != Bitboards.row(king) || squares[rook].hasMoved()) {
+        continue;
+      }
+
+      if (rook < king && castlingRooks[team * 2] < 0) {
+        castlingRooks[team * 2] = rook;
+      } else if (rook > king) {
+        castlingRooks[team * 2 + 1] = rook;
+      }
+    }
+  }
+
+  /**
+   * Returns the squares the piece on the provided square may move to, not considering whether or
+   * not its own king is left in check.
+   */
+  private long targetsOf(int index, int from) {
+    int team = index / TYPES;
+    long allowed = ~teamBoards[team] & ~pieceBoards[KING + (1 - team) * TYPES];
+
+    switch (index % TYPES) {
+      case PAWN:
+        long enemies = teamBoards[1 - team];
+        if (team == sideToMove() && enPassantSquare >= 0) {
+          enemies |= Bitboards.bit(enPassantSquare);
+        }
+        return (pawnPushes(from, team)
+            | Bitboards.pawnAttacks(from, team == TOP) & enemies) & allowed;
+      case KNIGHT:
+        return Bitboards.knightAttacks(from) & allowed;
+      case BISHOP:
+        return Bitboards.bishopAttacks(from, occupied) & allowed;
+      case ROOK:
+        return Bitboards.rookAttacks(from, occupied) & allowed;
+      case QUEEN:
+        return Bitboards.queenAttacks(from, occupied) & allowed;
+      default:
+        return Bitboards.kingAttacks(from) & allowed;
+    }
+  }
+
+  private long pawnPushes(int from, int team) {
+    int dir = team == TOP ? Board.BOARD_LENGTH : -Board.BOARD_LENGTH;
+    int single = from + dir;
+    if (single < 0 || single >= squares.length || (occupied & Bitboards.bit(single)) != 0) {
+      return 0;
+    }
+
+    int startRow = team == TOP ? 1 : Board.BOARD_LENGTH - 2;
+    if (Bitboards.row(from) == startRow && (occupied & Bitboards.bit(single + dir)) == 0) {
+      return Bitboards.bit(single) | Bitboards.bit(single + dir);
+    }
+    return Bitboards.bit(single);
+  }
+
+  private boolean hasLegalMove(int team) {
+    generateLegalMoves(legalMoves, team);
+    return !legalMoves.isEmpty();
+  }
+
+  private void generateLegalMoves(MoveList moves, int team) {
+    moves.clear();
+    kingSafety.analyse(pieceBoards, occupied, team);
+
+    long own = teamBoards[team];
+    long checkers = kingSafety.checkers();
+    if ((checkers & (checkers - 1)) != 0) {
+      own = pieceBoards[KING + team * TYPES];
+    }
+
+    while (own != 0) {
+      int from = Long.numberOfTrailingZeros(own);
+      own &= own - 1;
+
+      int index = indexAt(from);
+      long targets = targetsOf(index, from);
+      while (targets != 0) {
+        int to = Long.numberOfTrailingZeros(targets);
+        targets &= targets - 1;
+
+        if (isLegal(index, from, to)) {
+          addMoves(moves, index, from, to);
+        }
+      }
+    }
+
+    int king = kingSquare(team);
+    if (canCastle(team, true)) {
+      int target = Bitboards.square(Bitboards.row(king), 2);
+      moves.add(Move.of(king, target, Move.CASTLING));
+    }
+    if (canCastle(team, false)) {
+      int target = Bitboards.square(Bitboards.row(king), 6);
+      moves.add(Move.of(king, target, Move.CASTLING));
+    }
+  }
+
+  private void addMoves(MoveList moves, int index, int from, int to) {
+    int flags = flagsOf(index, from, to);
+
+    if (index % TYPES == PAWN
+        && Bitboards.row(to) == (index / TYPES == TOP ? Board.BOARD_LENGTH - 1 : 0)) {
+      moves.add(Move.of(from, to, flags, Promotion.Queen));
+      moves.add(Move.of(from, to, flags, Promotion.Rook));
+      moves.add(Move.of(from, to, flags, Promotion.Bishop));
+      moves.add(Move.of(from, to, flags, Promotion.Knight));
+      return;
+    }
+
+    moves.add(Move.of(from, to, flags));
+  }
+
+  private int flagsOf(int index, int from, int to) {
+    int flags = (occupied & Bitboards.bit(to)) != 0 ? Move.CAPTURE : 0;
+
+    if (index % TYPES == PAWN) {
+      if (capturedSquare(index, from, to) != to) {
+        flags |= Move.CAPTURE | Move.EN_PASSANT;
+      } else if (Math.abs(to - from) == 2 * Board.BOARD_LENGTH) {
+        flags |= Move.DOUBLE_PUSH;
+      }
+    }
+    return flags;
+  }
+
+  /**
+   * Returns the legal move from one square to another for the team whose turn it is, without any
+   * promotion, or Move.NONE if there is no such move.
+   */
+  private int findMove(int from, int to) {
+    int index = indexAt(from);
+    if (index < 0 || index / TYPES != sideToMove()) {
+      return Move.NONE;
+    }
+
+    if ((targetsOf(index, from) & Bitboards.bit(to)) == 0) {
+      return Move.NONE;
+    }
+
+    kingSafety.analyse(pieceBoards, occupied, index / TYPES);
+    if (!isLegal(index, from, to)) {
+      return Move.NONE;
+    }
+    return Move.of(from, to, flagsOf(index, from, to));
+  }
+
+  private int capturedSquare(int index, int from, int to) {
+    if (index % TYPES == PAWN && to == enPassantSquare && index / TYPES == sideToMove()) {
+      return Bitboards.square(Bitboards.row(from), Bitboards.col(to));
+    }
+    return to;
+  }
+
+  /**
+   * Returns whether a pseudo-legal move keeps the own king out of check, using the pins and checks
+   * in kingSafety, which must have been analysed for the moving team. Only king moves and en
+   * passant captures are made on the bitboards to find out.
+   */
+  private boolean isLegal(int index, int from, int to) {
+    if (index % TYPES == KING || capturedSquare(index, from, to) != to) {
+      return !leavesKingInCheck(index, from, to);
+    }
+    return kingSafety.isSafe(from, to);
+  }
+
+  private boolean leavesKingInCheck(int index, int from, int to) {
+    System.arraycopy(pieceBoards, 0, savedBoards, 0, pieceBoards.length);
+    System.arraycopy(teamBoards, 0, savedTeams, 0, teamBoards.length);
+    long savedOccupied = occupied;
+    long savedKey = pieceKey;
+
+    int captured = capturedSquare(index, from, to);
+    int capturedIndex = indexAt(captured);
+    if (capturedIndex >= 0) {
+      toggle(capturedIndex, captured);
+    }
+    toggle(index, from);
+    toggle(index, to);
+
+    boolean inCheck = isKingAttacked(index / TYPES);
+
+    System.arraycopy(savedBoards, 0, pieceBoards, 0, pieceBoards.length);
+    System.arraycopy(savedTeams, 0, teamBoards, 0, teamBoards.length);
+    occupied = savedOccupied;
+    pieceKey = savedKey;
+    return inCheck;
+  }
+
+  private boolean isKingAttacked(int team) {
+    int king = kingSquare(team);
+    return king >= 0 && isAttacked(king, 1 - team, occupied);
+  }
+
+  private boolean isAttacked(int square, int attacker, long occupancy) {
+    int offset = attacker * TYPES;
+    long queens = pieceBoards[QUEEN + offset];
+
+    return (Bitboards.pawnAttacks(square, attacker == BOTTOM) & pieceBoards[PAWN + offset]) != 0
+        || (Bitboards.knightAttacks(square) & pieceBoards[KNIGHT + offset]) != 0
+        || (Bitboards.kingAttacks(square) & pieceBoards[KING + offset]) != 0
+        || (Bitboards.bishopAttacks(square, occupancy)
+        & (pieceBoards[BISHOP + offset] | queens)) != 0
+        || (Bitboards.rookAttacks(square, occupancy)
+        & (pieceBoards[ROOK + offset] | queens)) != 0;
+  }
+
+  /**
+   * Returns every square attacked by a team, whether or not the attacking pieces are pinned.
+   *
+   * @param pieceBoards One bitboard per piece type and team, indexed like indexOf(Piece).
+   * @param team The attacking team.
+   * @param occupancy All occupied squares, blocking sliding pieces.
+   * @return A square set.
+   */
+  static long attacks(long[] pieceBoards, int team, long occupancy) {
+    int offset = team * TYPES;
+    long attacks = 0;
+
+    for (long bits = pieceBoards[PAWN + offset]; bits != 0; bits &= bits - 1) {
+      attacks |= Bitboards.pawnAttacks(Long.numberOfTrailingZeros(bits), team == TOP);
+    }
+    for (long bits = pieceBoards[KNIGHT + offset]; bits != 0; bits &= bits - 1) {
+      attacks |= Bitboards.knightAttacks(Long.numberOfTrailingZeros(bits));
+    }
+    for (long bits = pieceBoards[KING + offset]; bits != 0; bits &= bits - 1) {
+      attacks |= Bitboards.kingAttacks(Long.numberOfTrailingZeros(bits));
+    }
+
+    long queens = pieceBoards[QUEEN + offset];
+    for (long bits = pieceBoards[BISHOP + offset] | queens; bits != 0; bits &= bits - 1) {
+      attacks |= Bitboards.bishopAttacks(Long.numberOfTrailingZeros(bits), occupancy);
+    }
+    for (long bits = pieceBoards[ROOK + offset] | queens; bits != 0; bits &= bits - 1) {
+      attacks |= Bitboards.rookAttacks(Long.numberOfTrailingZeros(bits), occupancy);
+    }
+    return attacks;
+  }
+
+  private static long span(int row, int fromCol, int toCol) {
+    long span = 0;
+    for (int col = Math.min(fromCol, toCol); col <= Math.max(fromCol, toCol); col++) {
+      span |= Bitboards.bit(Bitboards.square(row, col));
+    }
+    return span;
+  }
+
+  /**
+   * Castling follows the Chess960 rules, which are the same as the standard ones when the king and
+   * rooks start on their usual squares: every square between the king, the rook and their targets
+   * must be empty, and the king may not pass through or land on an attacked square.
+   */
+  private boolean canCastle(int team, boolean queenSide) {
+    int king = kingSquare(team);
+    int rook = castlingRooks[team * 2 + (queenSide ? 0 : 1)];
+    if (king < 0 || rook < 0 || (pieceBoards[ROOK + team * TYPES] & Bitboards.bit(rook)) == 0) {
+      return false;
+    }
+
+    int row = Bitboards.row(king);
+    int kingTarget = queenSide ? 2 : 6;
+    int rookTarget = queenSide ? 3 : 5;
+    long kingPath = span(row, Bitboards.col(king), kingTarget);
+    long path = kingPath | span(row, Bitboards.col(rook), rookTarget);
+    long castlers = Bitboards.bit(king) | Bitboards.bit(rook);
+
+    if ((path & occupied & ~castlers) != 0) {
+      return false;
+    }
+
+    while (kingPath != 0) {
+      int square = Long.numberOfTrailingZeros(kingPath);
+      kingPath &= kingPath - 1;
+
+      if (isAttacked(square, 1 - team, occupied & ~Bitboards.bit(rook))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Makes a move on the piece objects as well as the bitboards and logs it to the history. Moves
+   * made this way can not be taken back.
+   */
+  private void commitMove(int move) {
+    int from = Move.from(move);
+    int to = Move.to(move);
+    int row = Bitboards.row(to);
+    int col = Bitboards.col(to);
+    Piece piece = squares[from];
+    boolean hadMoved = piece.hasMoved();
+    boolean promoting = false;
+
+    // In Chess960 the king and rook may land on each other's start squares, so both are cleared
+    // before either is placed.
+    squares[from] = null;
+    if (Move.isCastling(move)) {
+      boolean queenSide = col == 2;
+      int rook = castlingRooks[(piece.isTop() ? TOP : BOTTOM) * 2 + (queenSide ? 0 : 1)];
+      Piece rookPiece = squares[rook];
+
+      squares[rook] = null;
+      squares[Bitboards.square(row, queenSide ? 3 : 5)] = rookPiece;
+      rookPiece.moveTo(row, queenSide ? 3 : 5);
+    } else {
+      int captured = capturedSquare(indexAt(from), from, to);
+      if (squares[captured] != null) {
+        squares[captured].setState(Piece.State.Captured);
+        squares[captured] = null;
+      }
+
+      if (piece instanceof Pawn && row == (piece.isTop() ? Board.BOARD_LENGTH - 1 : 0)) {
+        promotionSquare = to;
+        promoting = true;
+      }
+    }
+
+    squares[to] = piece;
+    piece.moveTo(row, col);
+
+    makeMove(move);
+    undoSize = 0;
+    history.add(move, indexOf(piece), hadMoved, promoting);
+  }
+
+  private long packCastlingRooks() {
+    long packed = 0;
+    for (int i = 0; i < castlingRooks.length; i++) {
+      packed |= (long) (castlingRooks[i] + 1) << (7 * i);
+    }
+    return packed;
+  }
+
+  private void unpackCastlingRooks(long packed) {
+    for (int i = 0; i < castlingRooks.length; i++) {
+      castlingRooks[i] = (int) (packed >>> (7 * i) & 0x7F) - 1;
+    }
+  }
+
+  static int indexOf(Piece piece) {
+    int type;
+    if (piece instanceof Pawn) {
+      type = PAWN;
+    } else if (piece instanceof Knight) {
+      type = KNIGHT;
+    } else if (piece instanceof Bishop) {
+      type = BISHOP;
+    } else if (piece instanceof Rook) {
+      type = ROOK;
+    } else if (piece instanceof Queen) {
+      type = QUEEN;
+    } else {
+      type = KING;
+    }
+    return type + (piece.isTop() ? TOP * TYPES : 0);
+  }
+
+  private static int typeOf(Promotion promotion) {
+    switch (promotion) {
+      case Bishop:
+        return BISHOP;
+      case Rook:
+        return ROOK;
+      case Knight:
+        return KNIGHT;
+      default:
+        return QUEEN;
+    }
+  }
+
+  static Piece createPiece(int type, int row, int col, boolean isTop) {
+    return FACTORIES[type].create(row, col, isTop);
+  }
+
+  @Override
+  public String toString() {
+    char[] board = new char[squares.length];
+    Arrays.fill(board, '.');
+    for (int index = 0; index < pieceBoards.length; index++) {
+      char symbol = PIECE_CHARS.charAt(index % TYPES);
+      if (index / TYPES == BOTTOM) {
+        symbol = Character.toLowerCase(symbol);
+      }
+
+      for (long bits = pieceBoards[index]; bits != 0; bits &= bits - 1) {
+        board[Long.numberOfTrailingZeros(bits)] = symbol;
+      }
+    }
+    return new String(board);
+  }
+
+}
@@ -0,0 +1,308 @@
+package chess.engine;
+
+import java.util.Random;
+
+/**
+ * Helpers for 64-bit square sets. Square indices are {@code row * 8 + col}, so bit 0 is the top
+ * left corner of the board and bit 63 the bottom right one.
+ */
+public final class Bitboards {
+
+  private static final int[][] KNIGHT_DELTAS = {
+      {-2, -1}, {-2, 1}, {-1, -2}, {-1, 2}, {1, -2}, {1, 2}, {2, -1}, {2, 1}
+  };
+  private static final int[][] KING_DELTAS = {
+      {-1, -1}, {-1, 0}, {-1, 1}, {0, -1}, {0, 1}, {1, -1}, {1, 0}, {1, 1}
+  };
+  private static final int[][] BOTTOM_PAWN_DELTAS = {{-1, -1}, {-1, 1}};
+  private static final int[][] TOP_PAWN_DELTAS = {{1, -1}, {1, 1}};
+  private static final int[][] ROOK_DIRECTIONS = {{-1, 0}, {1, 0}, {0, -1}, {0, 1}};
+  private static final int[][] BISHOP_DIRECTIONS = {{-1, -1}, {-1, 1}, {1, -1}, {1, 1}};
+
+  // Built once when the class is loaded.
+  private static final long[] KNIGHT_ATTACKS = new long[64];
+  private static final long[] KING_ATTACKS = new long[64];
+  private static final long[][] PAWN_ATTACKS = new long[2][64];
+
+  private static final long[][] BETWEEN = new long[64][64];
+  private static final long[][] LINE = new long[64][64];
+
+  /*
+   * Magic bitboards for the sliding pieces. The blockers of a square are multiplied by a magic
+   * number and shifted, which maps every relevant occupancy to its own slot in the attack table of
+   * that square. The magics are searched for with a fixed seed, so the tables are the same on every
+   * run.
+   */
+  private static final Magic[] ROOK_MAGICS = new Magic[64];
+  private static final Magic[] BISHOP_MAGICS = new Magic[64];
+
+  static {
+    for (int square = 0; square < 64; square++) {
+      KNIGHT_ATTACKS[square] = leaperAttacks(square, KNIGHT_DELTAS);
+      KING_ATTACKS[square] = leaperAttacks(square, KING_DELTAS);
+      PAWN_ATTACKS[0][square] = leaperAttacks(square, BOTTOM_PAWN_DELTAS);
+      PAWN_ATTACKS[1][square] = leaperAttacks(square, TOP_PAWN_DELTAS);
+
+      for (int[][] directions : new int[][][] {ROOK_DIRECTIONS, BISHOP_DIRECTIONS}) {
+        for (int[] direction : directions) {
+          long line = bit(square)
+              | ray(square, direction[0], direction[1])
+              | ray(square, -direction[0], -direction[1]);
+
+          long between = 0;
+          int row = row(square) + direction[0];
+          int col = col(square) + direction[1];
+          while (isInside(row, col)) {
+            int target = square(row, col);
+            BETWEEN[square][target] = between;
+            LINE[square][target] = line;
+
+            between |= bit(target);
+            row += direction[0];
+            col += direction[1];
+          }
+        }
+      }
+    }
+
+    Random random = new Random(0x5EED_0F_5L);
+    for (int square = 0; square < 64; square++) {
+      ROOK_MAGICS[square] = findMagic(square, ROOK_DIRECTIONS, random);
+      BISHOP_MAGICS[square] = findMagic(square, BISHOP_DIRECTIONS, random);
+    }
+  }
+
+  private Bitboards() {
+  }
+
+  public static int square(int row, int col) {
+    return row * Board.BOARD_LENGTH + col;
+  }
+
+  public static int row(int square) {
+    return square >>> 3;
+  }
+
+  public static int col(int square) {
+    return square & 7;
+  }
+
+  public static long bit(int square) {
+    return 1L << square;
+  }
+
+  public static boolean isInside(int row, int col) {
+    return row >= 0 && row < Board.BOARD_LENGTH && col >= 0 && col < Board.BOARD_LENGTH;
+  }
+
+  public static long knightAttacks(int square) {
+    return KNIGHT_ATTACKS[square];
+  }
+
+  public static long kingAttacks(int square) {
+    return KING_ATTACKS[square];
+  }
+
+  /**
+   * Returns the squares a pawn on the provided square attacks.
+   *
+   * @param square The square of the pawn.
+   * @param isTop Whether the pawn belongs to the top team, which moves towards higher rows.
+   * @return A square set.
+   */
+  public static long pawnAttacks(int square, boolean isTop) {
+    return PAWN_ATTACKS[isTop ? 1 : 0][square];
+  }
+
+  /**
+   * Returns the squares a pawn on the provided square may move to without capturing, ignoring
+   * other pieces.
+   *
+   * @param square The square of the pawn.
+   * @param isTop Whether the pawn belongs to the top team, which moves towards higher rows.
+   * @param hasMoved Whether the pawn has moved before. If not it may also move two squares.
+   * @return A square set.
+   */
+  public static long pawnPushes(int square, boolean isTop, boolean hasMoved) {
+    int dir = isTop ? 1 : -1;
+    int row = row(square) + dir;
+    int col = col(square);
+
+    long pushes = 0;
+    if (isInside(row, col)) {
+      pushes |= bit(square(row, col));
+    }
+    if (!hasMoved && isInside(row + dir, col)) {
+      pushes |= bit(square(row + dir, col));
+    }
+    return pushes;
+  }
+
+  /**
+   * Returns the squares a rook on the provided square attacks, stopping at the first occupied
+   * square in every direction, which is included.
+   *
+   * @param square The square of the rook.
+   * @param occupied The occupied squares of the board.
+   * @return A square set.
+   */
+  public static long rookAttacks(int square, long occupied) {
+    return ROOK_MAGICS[square].attacks(occupied);
+  }
+
+  /**
+   * Returns the squares a bishop on the provided square attacks, stopping at the first occupied
+   * square in every direction, which is included.
+   *
+   * @param square The square of the bishop.
+   * @param occupied The occupied squares of the board.
+   * @return A square set.
+   */
+  public static long bishopAttacks(int square, long occupied) {
+    return BISHOP_MAGICS[square].attacks(occupied);
+  }
+
+  public static long queenAttacks(int square, long occupied) {
+    return rookAttacks(square, occupied) | bishopAttacks(square, occupied);
+  }
+
+  /**
+   * Returns the squares strictly between two squares on the same row, column or diagonal.
+   *
+   * @param from The first square.
+   * @param to The second square.
+   * @return A square set, empty if the squares are not aligned or adjacent.
+   */
+  public static long between(int from, int to) {
+    return BETWEEN[from][to];
+  }
+
+  /**
+   * Returns the full row, column or diagonal going through two squares, from edge to edge.
+   *
+   * @param from The first square.
+   * @param to The second square.
+   * @return A square set, empty if the squares are not aligned.
+   */
+  public static long line(int from, int to) {
+    return LINE[from][to];
+  }
+
+  private static long leaperAttacks(int square, int[][] deltas) {
+    long attacks = 0;
+    for (int[] delta : deltas) {
+      int row = row(square) + delta[0];
+      int col = col(square) + delta[1];
+      if (isInside(row, col)) {
+        attacks |= bit(square(row, col));
+      }
+    }
+    return attacks;
+  }
+
+  private static long ray(int square, int rowDelta, int colDelta) {
+    long ray = 0;
+    int row = row(square) + rowDelta;
+    int col = col(square) + colDelta;
+    while (isInside(row, col)) {
+      ray |= bit(square(row, col));
+      row += rowDelta;
+      col += colDelta;
+    }
+    return ray;
+  }
+
+  /**
+   * Finds a magic number for the provided square and fills its attack table. The relevant blockers
+   * are the squares of the rays without the edge of the board, since a piece on the last square of
+   * a ray does not change the attacks.
+   */
+  private static Magic findMagic(int square, int[][] directions, Random random) {
+    long mask = 0;
+    for (int[] direction : directions) {
+      int row = row(square) + direction[0];
+      int col = col(square) + direction[1];
+      while (isInside(row + direction[0], col + direction[1])) {
+        mask |= bit(square(row, col));
+        row += direction[0];
+        col += direction[1];
+      }
+    }
+
+    int bits = Long.bitCount(mask);
+    long[] occupancies = new long[1 << bits];
+    long[] attacks = new long[occupancies.length];
+    long subset = 0;
+    for (int i = 0; i < occupancies.length; i++) {
+      occupancies[i] = subset;
+      attacks[i] = slidingAttacks(square, subset, directions);
+      subset = (subset - mask) & mask;
+    }
+
+    long[] table = new long[occupancies.length];
+    int[] epochs = new int[occupancies.length];
+    int shift = 64 - bits;
+    for (int epoch = 1; ; epoch++) {
+      long magic = random.nextLong() & random.nextLong() & random.nextLong();
+      if (Long.bitCount((mask * magic) & 0xFF00000000000000L) < 6) {
+        continue;
+      }
+
+      boolean found = true;
+      for (int i = 0; i < occupancies.length && found; i++) {
+        int index = (int) ((occupancies[i] * magic) >>> shift);
+        if (epochs[index] != epoch) {
+          epochs[index] = epoch;
+          table[index] = attacks[i];
+        } else if (table[index] != attacks[i]) {
+          found = false;
+        }
+      }
+
+      if (found) {
+        return new Magic(mask, magic, shift, table);
+      }
+    }
+  }
+
+  private static long slidingAttacks(int square, long occupied, int[][] directions) {
+    long attacks = 0;
+    for (int[] direction : directions) {
+      int row = row(square) + direction[0];
+      int col = col(square) + direction[1];
+
+      while (isInside(row, col)) {
+        long target = bit(square(row, col));
+        attacks |= target;
+        if ((occupied & target) != 0) {
+          break;
+        }
+
+        row += direction[0];
+        col += direction[1];
+      }
+    }
+    return attacks;
+  }
+
+  private static final class Magic {
+
+    private final long mask;
+    private final long magic;
+    private final int shift;
+    private final long[] attacks;
+
+    private Magic(long mask, long magic, int shift, long[] attacks) {
+      this.mask = mask;
+      this.magic = magic;
+      this.shift = shift;
+      this.attacks = attacks;
+    }
+
+    long attacks(long occupied) {
+      return attacks[(int) (((occupied & mask) * magic) >>> shift)];
+    }
+
+  }
+
+}
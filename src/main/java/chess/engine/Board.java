@@ -9,42 +9,77 @@ import chess.engine.pieces.Piece;
 import chess.engine.pieces.Queen;
 import chess.engine.pieces.Rook;
 import chess.engine.pieces.Square;
-import chess.engine.rules.Rule;
-import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collections;
-import java.util.Comparator;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Random;
 import java.util.Set;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
-import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.Marker;
 import org.slf4j.MarkerFactory;
 
+/**
+ * A board validating every move against the rules of the pieces.
+ *
+ * <p>Boards are not thread-safe. Each board belongs to one game and must only be used by one thread
+ * at a time; hand it over to another thread through a safe publication, such as an executor or a
+ * lock shared with that thread, or give the other thread a copy from {@link #getDeepCopy()}. Boards
+ * share no mutable state: the static tables used by all of them are immutable, and the only shared
+ * counters, those of RuleMetrics, are thread-safe.
+ */
 public final class Board implements BoardInterface {
 
   public static final int BOARD_LENGTH = 8;
-
-  private static BoardInterface instance = new Board(false);
+  private static final int FIFTY_MOVES = 100;
 
   private Marker instanceMarker;
-  private boolean promoteAfterAction;
   private int promotionIndex = -1;
   private int turn;
 
   private Piece selected;
   private State gameState;
+  private boolean noLegalMoves;
   private GameType gameType;
 
   private List<Piece> pieces = new ArrayList<>();
-  private List<Action> history = new ArrayList<>();
+  private MoveLog history = new MoveLog();
+  private String initialFen;
+
+  private int enPassantSquare = -1;
+  private int castlingRights;
+  private long pieceKey;
+
+  /**
+   * The keys of the positions before every move of the game, oldest first, and the number of moves
+   * since the last capture or pawn move. Only the positions since then can be repeated.
+   */
+  private long[] keyHistory = new long[64];
+  private int keyCount;
+  private int halfmoveClock;
+
+  /**
+   * The position as bitboards, indexed like BitBoard.indexOf(Piece) and kept up to date with the
+   * pieces. The attack map, checkers and pins of each team are derived from them when first needed
+   * after a change.
+   */
+  private final long[] pieceBoards = new long[BitBoard.TYPES * 2];
+  private long occupied;
+  private long material;
+  private final long[] attackMaps = new long[2];
+  private final boolean[] attackMapsValid = new boolean[2];
+  private final KingSafety[] kingSafety = {new KingSafety(), new KingSafety()};
+  private final boolean[] kingSafetyValid = new boolean[2];
+  private final List<Undo> undoStack = new ArrayList<>();
+  private int undoSize;
+
+  private BitBoard bitBoard;
+  private MoveList legalMoves;
+  private volatile Snapshot snapshot;
 
   private final Logger logger;
 
@@ -59,13 +94,13 @@ public final class Board implements BoardInterface {
 
   }
 
-  public static BoardInterface getInstance() {
-    return instance;
-  }
-
-  @Override
-  public Board getEngine() {
-    return this;
+  /**
+   * Creates a new, empty board.
+   *
+   * @return A board which is not shared with anyone else.
+   */
+  public static Board create() {
+    return new Board(false);
   }
 
   @Override
@@ -115,6 +150,8 @@ public final class Board implements BoardInterface {
 
     }
 
+    updatePosition();
+    publish();
     logger.debug(instanceMarker, "Standard board created.");
   }
 
@@ -173,26 +210,209 @@ public final class Board implements BoardInterface {
       pieces.add(new Pawn(6, i, false));
     }
 
+    updatePosition();
+    publish();
     logger.debug(instanceMarker, "Fischer board created.");
   }
 
   @Override
   public void setupEmptyBoard(boolean topFirst) {
+    clear(topFirst);
+    publish();
+    logger.debug(instanceMarker, "Empty board setup.");
+  }
+
+  /**
+   * Sets up the position of a FEN record, including the side to move, castling rights, en passant
+   * square and both move clocks. The en passant square and the clocks may be left out. Castling
+   * rights are given as KQkq, or as the files of the rooks (e.g. HAha) for Fischer games. Pawns on
+   * their starting row and the kings and rooks that may castle are the only pieces that have not
+   * moved.
+   *
+   * @param fen The FEN record, e.g. {@code "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq -
+   *     0 1"}.
+   * @throws IllegalArgumentException If the record is malformed.
+   */
+  public void setupFromFen(CharSequence fen) {
+    Fen reader = new Fen(fen);
+    clear(false);
+
+    int row = 0;
+    int col = 0;
+    while (reader.hasNext()) {
+      char next = reader.next();
+      if (next == '/') {
+        if (col != BOARD_LENGTH || ++row == BOARD_LENGTH) {
+          throw reader.error("Invalid row");
+        }
+        col = 0;
+      } else if (next >= '1' && next <= '8') {
+        col += next - '0';
+      } else {
+        int index = Fen.indexOf(next);
+        if (index < 0 || col >= BOARD_LENGTH) {
+          throw reader.error("Invalid piece");
+        }
+
+        Piece piece = BitBoard.createPiece(index % BitBoard.TYPES, row, col,
+            index / BitBoard.TYPES == BitBoard.TOP);
+        boolean startRow = row == (piece.isTop() ? 1 : BOARD_LENGTH - 2);
+        piece.restore(row, col, !(piece instanceof Pawn) || !startRow);
+        pieces.add(piece);
+        col++;
+      }
+
+      if (col > BOARD_LENGTH) {
+        throw reader.error("Invalid row");
+      }
+    }
+    if (row != BOARD_LENGTH - 1 || col != BOARD_LENGTH) {
+      throw reader.error("Invalid piece placement");
+    }
+
+    reader.nextField();
+    char side = reader.next();
+    if (side != 'w' && side != 'b') {
+      throw reader.error("Invalid side to move");
+    }
+
+    reader.nextField();
+    if (reader.peek() == '-') {
+      reader.next();
+    } else {
+      readCastlingRights(reader);
+    }
+
+    int fullmove = 1;
+    if (reader.nextField()) {
+      enPassantSquare = reader.readSquare();
+      if (enPassantSquare >= 0 && Bitboards.row(enPassantSquare) != (side == 'w' ? 2 : 5)) {
+        throw reader.error("Invalid en passant square");
+      }
+
+      if (reader.nextField()) {
+        halfmoveClock = reader.readNumber();
+        reader.nextField();
+        fullmove = Math.max(1, reader.readNumber());
+      }
+    }
+    turn = fullmove * 2 - (side == 'w' ? 1 : 0);
+
+    updatePosition();
+    publish();
+    logger.debug(instanceMarker, "Board created from FEN.");
+  }
+
+  /**
+   * Reads the castling rights of a FEN record and marks the kings and rooks they refer to as
+   * unmoved.
+   */
+  private void readCastlingRights(Fen reader) {
+    while (reader.hasNext()) {
+      char right = reader.next();
+      boolean isTop = Character.isLowerCase(right);
+      char file = Character.toUpperCase(right);
+      Piece king = getKingOfTeam(isTop);
+      if (king == null || king.row() != (isTop ? 0 : BOARD_LENGTH - 1)) {
+        throw reader.error("Castling without a king");
+      }
+
+      Piece rook;
+      if (file == 'K' || file == 'Q') {
+        rook = getCastlingRook(king, file == 'Q');
+      } else if (file >= 'A' && file <= 'H') {
+        rook = getAt(king.row(), file - 'A');
+        gameType = GameType.Fischer;
+      } else {
+        throw reader.error("Invalid castling right");
+      }
+
+      if (!(rook instanceof Rook) || rook.isTop() != isTop) {
+        throw reader.error("Castling without a rook");
+      }
+      if (king.col() != 4 || rook.col() != 0 && rook.col() != BOARD_LENGTH - 1) {
+        gameType = GameType.Fischer;
+      }
+      king.restore(king.row(), king.col(), false);
+      rook.restore(rook.row(), rook.col(), false);
+    }
+  }
+
+  /**
+   * Describes the position as a FEN record. Castling rights are written as KQkq in standard games
+   * and as the files of the rooks in Fischer games.
+   *
+   * @return A FEN record.
+   */
+  public String toFen() {
+    StringBuilder fen = new StringBuilder(90);
+    Fen.appendPlacement(fen, pieceBoards);
+    fen.append(isTopTurn() ? " b " : " w ");
+
+    if (castlingRights == 0) {
+      fen.append('-');
+    }
+    for (int team = 0; team < 2; team++) {
+      Piece king = getKingOfTeam(team == BitBoard.TOP);
+      for (int side = 1; side >= 0; side--) {
+        if ((castlingRights & 1 << (team * 2 + side)) == 0) {
+          continue;
+        }
+
+        char right = side == 1 ? 'K' : 'Q';
+        if (gameType == GameType.Fischer) {
+          right = (char) ('A' + getCastlingRook(king, side == 0).col());
+        }
+        fen.append(team == BitBoard.TOP ? Character.toLowerCase(right) : right);
+      }
+    }
+
+    fen.append(' ');
+    if (enPassantSquare >= 0) {
+      Fen.appendSquare(fen, enPassantSquare);
+    } else {
+      fen.append('-');
+    }
+
+    fen.append(' ').append(halfmoveClock).append(' ').append(Math.max(1, (turn + 1) / 2));
+    return fen.toString();
+  }
+
+  /**
+   * Describes the position the moves in the history were played from.
+   *
+   * @return A FEN record, the current position if no move has been played.
+   */
+  public String getInitialFen() {
+    return initialFen == null ? toFen() : initialFen;
+  }
+
+  private void clear(boolean topFirst) {
     pieces.clear();
     history.clear();
+    initialFen = null;
+    enPassantSquare = -1;
+    castlingRights = 0;
+    pieceKey = 0;
+    Arrays.fill(pieceBoards, 0);
+    occupied = 0;
+    material = 0;
+    positionChanged();
+    undoSize = 0;
+    keyCount = 0;
+    halfmoveClock = 0;
     turn = topFirst ? 0 : 1;
     selected = null;
     gameType = GameType.Standard;
-    logger.debug(instanceMarker, "Empty board setup.");
   }
 
   @Override
   public Action getLastMove() {
-    if (history.isEmpty()) {
+    if (history.size() == 0) {
       return null;
     }
 
-    return history.get(history.size() - 1);
+    return history.toAction(history.size() - 1);
   }
 
   @Override
@@ -206,6 +426,12 @@ public final class Board implements BoardInterface {
 
   @Override
   public boolean selectPieceAt(int row, int col) {
+    boolean success = select(row, col);
+    publish();
+    return success;
+  }
+
+  private boolean select(int row, int col) {
     if (isPromoting()) {
       return false;
     }
@@ -276,15 +502,16 @@ public final class Board implements BoardInterface {
     int row = king.row();
     int col = queenSide ? 2 : 6;
     Action action = new Action(king, row, col, Type.Castling);
-    action.insertAct(true, () -> king.moveTo(row, col));
 
-    if (!king.isAllowed(this, action)) {
+    // Failed castles are turned into ordinary king moves by the rules, which must not be played.
+    if (!king.isAllowed(this, action) || !Move.isCastling(action.move())) {
       logger.debug(instanceMarker, "Castling not allowed.");
       return false;
     }
 
-    if (takeAction(action, false, 2)) {
+    if (takeAction(action)) {
       clearSelected();
+      publish();
       logger.debug(instanceMarker, "Castling successful.");
       return true;
     }
@@ -292,123 +519,169 @@ public final class Board implements BoardInterface {
     return false;
   }
 
-  @Override
-  public boolean isKingInCheck(boolean isTop) {
-    Piece king = getKingOfTeam(isTop);
-
-    if (king == null) {
+  /**
+   * Plays a legal move, as generated by generateLegalMoves, as a move of the game. Unlike makeMove
+   * the move is logged to the history and can not be taken back. Pawns are promoted to the piece
+   * encoded in the move.
+   *
+   * @param move The packed move. See Move for the encoding.
+   * @return False if the move could not be played, e.g if the board waits for a promotion.
+   */
+  public boolean playMove(int move) {
+    int from = Move.from(move);
+    Piece piece = getAt(Bitboards.row(from), Bitboards.col(from));
+    if (isPromoting() || piece == null || piece.isTop() != isTopTurn()) {
       return false;
     }
 
-    return isSquareUnderAttack(king.row(), king.col(), king.isTop(), false);
-  }
+    clearSelected();
+    Action action = new Action(piece, move);
+    if (Move.isPromotion(move)) {
+      action.setPromoting();
+    }
 
-  @Override
-  public boolean isTeamInCheckmate(boolean isTop) {
-    if (!isKingInCheck(isTop)) {
+    if (!takeAction(action)) {
       return false;
     }
 
-    Piece king = getKingOfTeam(isTop);
-
-    if (king == null) {
-      return false;
+    if (isPromoting()) {
+      return promoteTo(Move.promotion(move));
     }
+    publish();
+    return true;
+  }
 
-    List<Piece> attackers = getEnemyPieces(isTop)
-        .stream()
-        .filter(m -> m.isAllowed(this, new Action(m, king.pos(), Action.Type.Attack)))
-        .collect(Collectors.toList());
+  @Override
+  public void generateLegalMoves(MoveList moves) {
+    getBitBoard().generateLegalMoves(moves, isTopTurn());
+  }
 
-    if (attackers
-        .stream()
-        .allMatch(m -> isSquareUnderAttack(m.row(), m.col(), m.isTop(), m instanceof Pawn))) {
-      return false;
-    }
+  @Override
+  public boolean isKingInCheck(boolean isTop) {
+    int team = isTop ? BitBoard.TOP : BitBoard.BOTTOM;
+    return (pieceBoards[BitBoard.KING + team * BitBoard.TYPES] & getAttackMap(!isTop)) != 0;
+  }
 
-    return getFriendlyPieces(isTop).stream().allMatch(m -> getValidPositions(m).isEmpty());
+  @Override
+  public boolean isTeamInCheckmate(boolean isTop) {
+    return isKingInCheck(isTop) && !hasLegalMoves(isTop);
   }
 
   @Override
   public boolean isTeamInStalemate(boolean isTop) {
-    if (isKingInCheck(isTop)) {
-      return false;
-    }
-
-    return getFriendlyPieces(isTop)
-        .stream()
-        .allMatch(m -> getValidPositions(m).isEmpty() && getValidAttacks(m).isEmpty());
+    return !isKingInCheck(isTop) && !hasLegalMoves(isTop);
   }
 
   @Override
   public boolean isGameADraw() {
-    if (gameType != GameType.Standard) {
-      return false;
-    }
-
-    if (pieces.stream().allMatch(m -> m instanceof King)) {
+    if (halfmoveClock >= FIFTY_MOVES || isThreefoldRepetition()) {
       return true;
     }
 
-    int size = pieces.size();
-    if (size == 3) {
-      if (pieces.stream().filter(m -> m instanceof King).count() == 2
-          && pieces.stream().anyMatch(m -> m instanceof Bishop || m instanceof Knight)) {
+    return gameType == GameType.Standard && Material.isInsufficient(material);
+  }
+
+  /**
+   * Returns whether or not the current position has occurred at least twice before with the same
+   * team to move. Only the positions since the last capture or pawn move are compared.
+   *
+   * @return True or false.
+   */
+  public boolean isThreefoldRepetition() {
+    long key = positionKey();
+    int repetitions = 1;
+    int oldest = Math.max(keyCount - halfmoveClock, 0);
+    for (int i = keyCount - 2; i >= oldest; i -= 2) {
+      if (keyHistory[i] == key && ++repetitions >= 3) {
         return true;
       }
     }
+    return false;
+  }
 
-    if (size == 4) {
-      if (getEnemyPieces(true)
-          .stream()
-          .filter(m -> m instanceof King || m instanceof Bishop)
-          .anyMatch(m -> m instanceof Bishop)) {
-        if (getFriendlyPieces(true)
-            .stream()
-            .filter(m -> m instanceof King || m instanceof Bishop)
-            .anyMatch(m -> m instanceof Bishop)) {
-
-          return pieces
-              .stream()
-              .filter(m -> m instanceof Bishop)
-              .allMatch(m -> m.row() % 2 == m.col() % 2)
-              || pieces
-              .stream()
-              .filter(m -> m instanceof Bishop)
-              .allMatch(m -> m.row() % 2 != m.col() % 2);
-        }
+  /**
+   * Returns whether or not the current position has occurred before with the same team to move,
+   * which is enough for a search to score it as a draw.
+   *
+   * @return True or false.
+   */
+  public boolean isRepetition() {
+    long key = positionKey();
+    int oldest = Math.max(keyCount - halfmoveClock, 0);
+    for (int i = keyCount - 2; i >= oldest; i -= 2) {
+      if (keyHistory[i] == key) {
+        return true;
       }
     }
-
     return false;
   }
 
+  /**
+   * Returns the number of moves made by either team since the last capture or pawn move.
+   *
+   * @return A non-negative integer.
+   */
+  public int getHalfmoveClock() {
+    return halfmoveClock;
+  }
+
+  /**
+   * Returns the square a pawn may move to in order to capture en passant, i.e the square skipped
+   * by a pawn which moved two steps in the last move.
+   *
+   * @return The square as {@code row * 8 + col}, or -1 if there is none.
+   */
+  public int getEnPassantSquare() {
+    return enPassantSquare;
+  }
+
+  /**
+   * Returns the state of the game for the team whose turn it is. The state is evaluated once per
+   * position, from a single legal move generation, and kept until the position changes.
+   *
+   * @return The state of the game.
+   */
   @Override
   public State getGameState() {
-    if (gameState != null) {
-      if (gameState.turn == turn) {
-        return gameState;
-      }
-    }
+    if (gameState == null) {
+      boolean inCheck = isKingInCheck(isTopTurn());
+      noLegalMoves = !generateAnyLegalMove(isTopTurn());
 
-    if (isGameADraw()) {
-      gameState = State.Draw;
-    } else if (isKingInCheck(isTopTurn())) {
-      if (isTeamInCheckmate(isTopTurn())) {
+      if (inCheck && noLegalMoves) {
         gameState = State.Checkmate;
-      } else {
+      } else if (isGameADraw()) {
+        gameState = State.Draw;
+      } else if (inCheck) {
         gameState = State.Check;
+      } else {
+        gameState = noLegalMoves ? State.Stalemate : State.Normal;
       }
-    } else if (isTeamInStalemate(isTopTurn())) {
-      gameState = State.Stalemate;
-    } else {
-      gameState = State.Normal;
     }
 
-    gameState.turn = turn;
     return gameState;
   }
 
+  @Override
+  public Snapshot getSnapshot() {
+    return snapshot;
+  }
+
+  /**
+   * Replaces the snapshot with one of the current position. The piece boards are copied, so the
+   * snapshot stays valid while the board keeps changing.
+   */
+  private void publish() {
+    long moved = 0;
+    for (Piece piece : pieces) {
+      if (piece.hasMoved()) {
+        moved |= Bitboards.bit(Bitboards.square(piece.row(), piece.col()));
+      }
+    }
+    int selectedSquare = selected == null ? -1 : Bitboards.square(selected.row(), selected.col());
+    snapshot = new Snapshot(pieceBoards, moved, selectedSquare, turn, isTopTurn(), getGameState(),
+        isPromoting(), positionKey());
+  }
+
   @Override
   public boolean isPromoting() {
     return promotionIndex >= 0;
@@ -427,33 +700,137 @@ public final class Board implements BoardInterface {
     logger.info(instanceMarker, "Attempting promotion.");
 
     Piece piece = pieces.get(promotionIndex);
-    try {
-      Piece promoted = promotion.type.getConstructor(
-          int.class,
-          int.class,
-          boolean.class)
-          .newInstance(piece.row(), piece.col(), piece.isTop());
-      promoted.setState(Piece.State.Alive);
-
-      pieces.remove(promotionIndex);
-      pieces.add(promotionIndex, promoted);
-      promotionIndex = -1;
-
-    } catch (InstantiationException
-        | IllegalAccessException
-        | InvocationTargetException
-        | NoSuchMethodException e) {
-      e.printStackTrace();
-      System.exit(1);
-      return false;
-    }
+    Piece promoted = promotion.create(piece.row(), piece.col(), piece.isTop());
+    promoted.setState(Piece.State.Alive);
+
+    pieces.remove(promotionIndex);
+    pieces.add(promotionIndex, promoted);
+    toggle(piece);
+    toggle(promoted);
+    promotionIndex = -1;
+    history.setPromotion(promotion);
 
     piece.setState(Piece.State.Promoted);
+    publish();
     logger.debug(instanceMarker, "Promotion successful.");
 
     return true;
   }
 
+  @Override
+  public void makeMove(int move) {
+    if (undoSize == undoStack.size()) {
+      undoStack.add(new Undo());
+    }
+    Undo undo = undoStack.get(undoSize++);
+    undo.clear();
+
+    int from = Move.from(move);
+    int to = Move.to(move);
+    Piece piece = getAt(Bitboards.row(from), Bitboards.col(from));
+
+    undo.move = move;
+    undo.halfmoveClock = halfmoveClock;
+    recordMove(positionKey(), piece instanceof Pawn || Move.isCapture(move));
+    undo.enPassantSquare = enPassantSquare;
+    undo.castlingRights = castlingRights;
+    undo.piece = piece;
+    undo.gameState = gameState;
+    undo.noLegalMoves = noLegalMoves;
+    turn++;
+    gameState = null;
+    enPassantSquare = -1;
+
+    if (piece == null) {
+      return;
+    }
+
+    undo.hasMoved = piece.hasMoved();
+
+    if (Move.isCastling(move)) {
+      boolean queenSide = Bitboards.col(to) == 2;
+      Piece rook = getCastlingRook(piece, queenSide);
+      if (rook != null) {
+        undo.rook = rook;
+        undo.rookFrom = Bitboards.square(rook.row(), rook.col());
+        undo.rookHasMoved = rook.hasMoved();
+        movePiece(rook, Bitboards.row(to), queenSide ? 3 : 5);
+      }
+    } else {
+      int captured = Move.isEnPassant(move)
+          ? Bitboards.square(Bitboards.row(from), Bitboards.col(to)) : to;
+      for (int i = 0; i < pieces.size(); i++) {
+        Piece other = pieces.get(i);
+        if (other != piece && other.isAt(Bitboards.row(captured), Bitboards.col(captured))) {
+          undo.captured = pieces.remove(i);
+          undo.capturedIndex = i;
+          toggle(other);
+          if (other instanceof Rook && !other.hasMoved()) {
+            castlingRights = computeCastlingRights();
+          }
+          break;
+        }
+      }
+    }
+
+    movePiece(piece, Bitboards.row(to), Bitboards.col(to));
+
+    if (Move.isPromotion(move)) {
+      Piece promoted = Move.promotion(move).create(piece.row(), piece.col(), piece.isTop());
+      pieces.set(pieces.indexOf(piece), promoted);
+      toggle(piece);
+      toggle(promoted);
+      undo.promoted = promoted;
+    } else if (piece instanceof Pawn && Math.abs(to - from) == 2 * BOARD_LENGTH) {
+      enPassantSquare = (from + to) / 2;
+    }
+  }
+
+  @Override
+  public void unmakeMove() {
+    Undo undo = undoStack.get(--undoSize);
+    keyCount--;
+    halfmoveClock = undo.halfmoveClock;
+    turn--;
+    gameState = null;
+    enPassantSquare = undo.enPassantSquare;
+    castlingRights = undo.castlingRights;
+
+    Piece piece = undo.piece;
+    if (piece == null) {
+      gameState = undo.gameState;
+      noLegalMoves = undo.noLegalMoves;
+      return;
+    }
+
+    if (undo.promoted != null) {
+      pieces.set(pieces.indexOf(undo.promoted), piece);
+      toggle(undo.promoted);
+      toggle(piece);
+    }
+
+    int from = Move.from(undo.move);
+    toggle(piece);
+    piece.restore(Bitboards.row(from), Bitboards.col(from), undo.hasMoved);
+    toggle(piece);
+
+    if (undo.rook != null) {
+      toggle(undo.rook);
+      undo.rook.restore(Bitboards.row(undo.rookFrom), Bitboards.col(undo.rookFrom),
+          undo.rookHasMoved);
+      toggle(undo.rook);
+    }
+
+    if (undo.captured != null) {
+      pieces.add(undo.capturedIndex, undo.captured);
+      toggle(undo.captured);
+    }
+
+    gameState = undo.gameState;
+    noLegalMoves = undo.noLegalMoves;
+    undo.clear();
+  }
+
   @Override
   public boolean isTopTurn() {
     return turn % 2 == 0;
@@ -465,23 +842,21 @@ public final class Board implements BoardInterface {
   }
 
   @Override
-  public List<Piece> getPieces() {
-    return new ArrayList<>(pieces);
+  public long positionKey() {
+    int team = isTopTurn() ? BitBoard.TOP : BitBoard.BOTTOM;
+    return pieceKey ^ Zobrist.state(castlingRights, enPassantSquare, isTopTurn(),
+        pieceBoards[BitBoard.PAWN + team * BitBoard.TYPES]);
   }
 
-  /**
-   * Makes it so that the next action done must be a promotion of a Pawn.
-   */
-  public void promoteAfterAction() {
-    if (isPromoting()) {
-      return;
-    }
-
-    promoteAfterAction = true;
+  @Override
+  public List<Piece> getPieces() {
+    return new ArrayList<>(pieces);
   }
 
   public void addPiece(Piece piece) {
     pieces.add(piece);
+    toggle(piece);
+    castlingRights = computeCastlingRights();
   }
 
   /**
@@ -492,11 +867,7 @@ public final class Board implements BoardInterface {
    * @param col The targeted column.
    */
   public void forceKill(Piece attacker, int row, int col) {
-
-    if (capturePiecesIf(m -> m.isAt(row, col))) {
-      takeAction(new Action(attacker, row, col, Action.Type.Attack), true, 0);
-    }
-
+    capturePiecesIf(m -> m.isAt(row, col));
   }
 
   /**
@@ -509,15 +880,11 @@ public final class Board implements BoardInterface {
    * @param toCol The new column.
    */
   public void forceMove(int fromRow, int fromCol, int toRow, int toCol) {
-    pieces.stream().filter(m -> m.isAt(fromRow, fromCol)).findAny().ifPresent(m -> {
-
-      capturePiecesIf(n -> n.isAt(toRow, toCol));
-
-      Action moveAction = new Action(m, toRow, toCol, Action.Type.Move);
-      moveAction.insertAct(true, () -> m.moveTo(toRow, toCol));
-      takeAction(moveAction, true, 0);
-
-    });
+    Piece piece = getAt(fromRow, fromCol);
+    if (piece != null) {
+      capturePiecesIf(m -> m.isAt(toRow, toCol));
+      movePiece(piece, toRow, toCol);
+    }
   }
 
   private void clearSelected() {
@@ -533,14 +900,14 @@ public final class Board implements BoardInterface {
     logger.info(instanceMarker, "Attempting movement to {}, {}.", row, col);
 
     Action action = new Action(selected, row, col, Action.Type.Move);
-    action.insertAct(true, () -> selected.moveTo(row, col));
     if (!selected.isAllowed(this, action)) {
       logger.debug(instanceMarker, "Movement disallowed.");
       return false;
     }
 
-    if (takeAction(action, false, 1)) {
+    if (takeAction(action)) {
       clearSelected();
+      publish();
       logger.debug(instanceMarker, "Movement successful.");
       return true;
     }
@@ -554,18 +921,14 @@ public final class Board implements BoardInterface {
     logger.info(instanceMarker, "Attempting capture at {}, {}", row, col);
 
     Action action = new Action(selected, row, col, Action.Type.Attack);
-    action.insertAct(true,
-        () -> capturePiecesIf(m -> m.isTop() != isTopTurn() && m.isAt(row, col)));
-    action.insertAct(false,
-        () -> selected.moveTo(row, col));
-
     if (!selected.isAllowed(this, action)) {
       logger.debug(instanceMarker, "Capture disallowed.");
       return false;
     }
 
-    if (takeAction(action, false, 2)) {
+    if (takeAction(action)) {
       clearSelected();
+      publish();
       logger.debug(instanceMarker, "Capture successful.");
       return true;
     }
@@ -576,7 +939,8 @@ public final class Board implements BoardInterface {
   }
 
   /**
-   * Returns whether or not a square is potentially under attack.
+   * Returns whether or not a square is potentially under attack. Looked up in the attack map of
+   * the enemy team, in which pinned pieces still count as attackers.
    *
    * @param row The row number.
    * @param col The column number.
@@ -585,75 +949,221 @@ public final class Board implements BoardInterface {
    * @return True if any unit in the enemy team could mount an attack towards this square.
    */
   public boolean isSquareUnderAttack(int row, int col, boolean isTop, boolean isPawn) {
-    if (isPawn
-        && pieces
-        .stream()
-        .filter(m -> (m instanceof Pawn) && m.isTop() != isTop)
-        .anyMatch(m ->
-            Rule.EN_PASSANT.isActionAllowed(this,
-                new Action(
-                    m,
-                    row + (m.row() < row ? 1 : -1),
-                    col,
-                    Action.Type.Move)).equals(Rule.Result.Passed))) {
-      return true;
+    if (isPawn && enPassantSquare >= 0 && Bitboards.col(enPassantSquare) == col
+        && Math.abs(Bitboards.row(enPassantSquare) - row) == 1) {
+      long enemyPawns = pieceBoards[BitBoard.PAWN + (isTop ? BitBoard.BOTTOM : BitBoard.TOP)
+          * BitBoard.TYPES];
+      if ((Bitboards.pawnAttacks(enPassantSquare, isTop) & enemyPawns) != 0) {
+        return true;
+      }
     }
 
-    return getEnemyPieces(isTop)
-        .stream()
-        .anyMatch(m -> m.isAllowed(this, new Action(m, row, col, Action.Type.Attack)));
+    return (getAttackMap(!isTop) & Bitboards.bit(Bitboards.square(row, col))) != 0;
   }
 
-  private boolean takeAction(Action action, boolean skipTurn, int minActsExecuted) {
-    logger.debug(instanceMarker, "Attempting action execution ({}).", action.toString());
-    if (action.execute() < minActsExecuted) {
-      logger.debug(instanceMarker, "Too few acts executed (min = {}).", minActsExecuted);
+  /**
+   * Returns whether or not moving the piece on one square to another would leave its own king in
+   * check. The checkers and pinned pieces of the team are analysed once per position, which
+   * decides most moves directly. Only king moves and en passant captures are made and taken back
+   * on the board to find out.
+   *
+   * @param fromRow The row of the piece.
+   * @param fromCol The column of the piece.
+   * @param toRow The targeted row.
+   * @param toCol The targeted column.
+   * @return True if the king would be in check after the move, otherwise false.
+   */
+  public boolean leavesKingInCheck(int fromRow, int fromCol, int toRow, int toCol) {
+    int from = Bitboards.square(fromRow, fromCol);
+    int to = Bitboards.square(toRow, toCol);
+    int index = indexAt(from);
+    if (index < 0) {
       return false;
     }
 
-    if (!skipTurn) {
-      history.add(action);
-      turn++;
+    int type = index % BitBoard.TYPES;
+    int team = index / BitBoard.TYPES;
+    boolean enPassant = type == BitBoard.PAWN && to == enPassantSquare && fromCol != toCol
+        && (occupied & Bitboards.bit(to)) == 0;
+
+    if (type != BitBoard.KING && !enPassant) {
+      return !getKingSafety(team).isSafe(from, to);
     }
 
-    if (promoteAfterAction) {
-      for (int i = 0; i < pieces.size(); i++) {
-        if (pieces.get(i).isAt(action.row(), action.col())) {
-          promotionIndex = i;
-          promoteAfterAction = false;
-          break;
-        }
+    makeMove(Move.of(from, to, enPassant ? Move.CAPTURE | Move.EN_PASSANT : 0));
+    boolean inCheck = isKingInCheck(team == BitBoard.TOP);
+    unmakeMove();
+    return inCheck;
+  }
+
+  /**
+   * Executes an action that passed the rules of its piece and ends the turn. What the action does
+   * to the board is derived from its type and the flags the rules set on it.
+   */
+  private boolean takeAction(Action action) {
+    logger.debug(instanceMarker, "Attempting action execution ({}).", action);
+    Piece piece = action.mover();
+    int row = action.row();
+    int col = action.col();
+    int move = action.move();
+
+    if (action.isCancelled()) {
+      logger.debug(instanceMarker, "Action cancelled by a rule.");
+      return false;
+    }
+
+    Piece rook = null;
+    if (Move.isCastling(move)) {
+      rook = getCastlingRook(piece, col < piece.col());
+      if (rook == null) {
+        logger.debug(instanceMarker, "Castling without a rook.");
+        return false;
+      }
+
+      int rookCol = col - Integer.signum(rook.col() - piece.col());
+      long castlers = Bitboards.bit(Bitboards.square(piece.row(), piece.col()))
+          | Bitboards.bit(Bitboards.square(rook.row(), rook.col()));
+      long targets = Bitboards.bit(Bitboards.square(row, col))
+          | Bitboards.bit(Bitboards.square(row, rookCol));
+      if ((targets & occupied & ~castlers) != 0) {
+        logger.debug(instanceMarker, "Castling onto an occupied square.");
+        return false;
       }
     }
 
+    long key = positionKey();
+    int pieceCount = pieces.size();
+    if (history.size() == 0) {
+      initialFen = toFen();
+    }
+    history.add(action);
+
+    if (rook != null) {
+      int dir = Integer.signum(rook.col() - piece.col());
+      movePiece(rook, row, col - dir);
+    } else if (Move.isEnPassant(move)) {
+      capturePiecesIf(m -> m.isAt(piece.row(), col));
+    } else if (action.getType() == Type.Attack) {
+      capturePiecesIf(m -> m.isTop() != piece.isTop() && m.isAt(row, col));
+    }
+    movePiece(piece, row, col);
+
+    enPassantSquare = enPassantSquareAfter(action);
+    recordMove(key, piece instanceof Pawn || pieces.size() < pieceCount);
+    turn++;
+    gameState = null;
+
+    if (action.isPromoting() && !isPromoting()) {
+      promotionIndex = pieces.indexOf(piece);
+    }
+
     logger.debug(instanceMarker, "Action executed successfully.");
 
     return true;
   }
 
+  /**
+   * Remembers the key of the position a move was made from and updates the halfmove clock.
+   *
+   * @param key The key of the position before the move.
+   * @param irreversible Whether the move was a capture or a pawn move.
+   */
+  private void recordMove(long key, boolean irreversible) {
+    if (keyCount == keyHistory.length) {
+      keyHistory = Arrays.copyOf(keyHistory, keyCount * 2);
+    }
+    keyHistory[keyCount++] = key;
+    halfmoveClock = irreversible ? 0 : halfmoveClock + 1;
+  }
+
+  private static List<Piece> copyPieces(List<Piece> pieces) {
+    List<Piece> copy = new ArrayList<>(pieces.size());
+    for (Piece piece : pieces) {
+      copy.add(piece.getDeepCopy());
+    }
+    return copy;
+  }
+
   /**
    * Returns all previously executed actions.
    *
    * @return An unmodifiable list of Action-objects.
    */
   public List<Action> getHistory() {
-    return Collections.unmodifiableList(history);
+    return history.asList();
+  }
+
+  /**
+   * Returns whether or not a team has any legal move, read from the game state if it is the
+   * team's turn.
+   */
+  private boolean hasLegalMoves(boolean isTop) {
+    if (isTop == isTopTurn()) {
+      getGameState();
+      return !noLegalMoves;
+    }
+
+    return generateAnyLegalMove(isTop);
+  }
+
+  private boolean generateAnyLegalMove(boolean isTop) {
+    if (legalMoves == null) {
+      legalMoves = new MoveList();
+    }
+
+    getBitBoard().generateLegalMoves(legalMoves, isTop);
+    return !legalMoves.isEmpty();
   }
 
-  private Set<Square> getValidPositions(Piece piece) {
-    return piece
-        .getPossiblePositions()
-        .stream()
-        .filter(m -> piece.isAllowed(this, new Action(piece, m, Action.Type.Move)))
-        .collect(Collectors.toSet());
+  /**
+   * Returns a bitboard view of the current position, used to generate moves without going through
+   * the rules of every piece.
+   */
+  private BitBoard getBitBoard() {
+    if (bitBoard == null) {
+      bitBoard = new BitBoard();
+    }
+
+    bitBoard.setPosition(pieces, turn, enPassantSquare, gameType);
+    return bitBoard;
   }
 
-  private Set<Square> getValidAttacks(Piece piece) {
-    return piece
-        .getPossibleAttackPositions()
-        .stream()
-        .filter(m -> piece.isAllowed(this, new Action(piece, m, Action.Type.Attack)))
-        .collect(Collectors.toSet());
+  /**
+   * Returns the square a pawn may move to in order to capture en passant after the provided move,
+   * the same way RuleEnPassant reads it from the last move.
+   */
+  private static int enPassantSquareAfter(Action last) {
+    int from = Move.from(last.move());
+    if (last.getType() != Type.Move || !(last.mover() instanceof Pawn)
+        || Math.abs(Bitboards.row(from) - last.row()) != 2) {
+      return -1;
+    }
+
+    return Bitboards.square((Bitboards.row(from) + last.row()) / 2, last.col());
+  }
+
+  /**
+   * Returns the squares occupied by any piece.
+   *
+   * @return A square set with bit {@code row * 8 + col} set for every square, see Bitboards.
+   */
+  public long getOccupied() {
+    return occupied;
+  }
+
+  /**
+   * Returns the squares occupied by one kind of piece.
+   *
+   * @param piece The character of the piece as in FEN, i.e 'N' for a knight of the bottom team and
+   *     'n' for one of the top team.
+   * @return A square set with bit {@code row * 8 + col} set for every square, see Bitboards.
+   */
+  public long getPieceBoard(char piece) {
+    int index = Fen.indexOf(piece);
+    if (index < 0) {
+      throw new IllegalArgumentException("Not a piece: " + piece);
+    }
+    return pieceBoards[index];
   }
 
   /**
@@ -663,33 +1173,32 @@ public final class Board implements BoardInterface {
    * @param col The column number.
    * @return The piece (if any) at the provided square. Passed by reference.
    */
+  @Override
   public Piece getAt(int row, int col) {
     return pieces.stream().filter(m -> m.isAt(row, col)).findAny().orElse(null);
   }
 
   /**
-   * Returns the rook furthest to the left or right.
+   * Returns the rook a king castles with, the outermost rook of its team on the king's row and
+   * side.
    *
-   * @param isTop Which team's rook to look for.
-   * @param left The one furthest to the left or right.
+   * @param king The castling king.
+   * @param queenSide Whether to look to the left of the king, towards the queen side.
    * @return The rook piece or null if none was found.
    */
-  public Piece getRook(boolean isTop, boolean left) {
-    return pieces
-        .stream()
-        .filter(m -> m.isTop() == isTop && m instanceof Rook)
-        .sorted(Comparator.comparingInt(Piece::col))
-        .skip(left ? 0 : 1)
-        .findFirst()
-        .orElse(null);
-  }
-
-  private List<Piece> getEnemyPieces(boolean isTop) {
-    return pieces.stream().filter(m -> m.isTop() != isTop).collect(Collectors.toList());
-  }
+  public Piece getCastlingRook(Piece king, boolean queenSide) {
+    Piece rook = null;
+    for (Piece piece : pieces) {
+      if (!(piece instanceof Rook) || piece.isTop() != king.isTop() || piece.row() != king.row()
+          || queenSide != piece.col() < king.col()) {
+        continue;
+      }
 
-  private List<Piece> getFriendlyPieces(boolean isTop) {
-    return getEnemyPieces(!isTop);
+      if (rook == null || queenSide == piece.col() < rook.col()) {
+        rook = piece;
+      }
+    }
+    return rook;
   }
 
   private Piece getKingOfTeam(boolean isTop) {
@@ -699,13 +1208,135 @@ public final class Board implements BoardInterface {
   }
 
   private boolean capturePiecesIf(Predicate<Piece> condition) {
-    return pieces.removeIf(m -> {
+    boolean captured = pieces.removeIf(m -> {
       if (condition.test(m)) {
         m.setState(Piece.State.Captured);
+        toggle(m);
         return true;
       }
       return false;
     });
+
+    if (captured) {
+      castlingRights = computeCastlingRights();
+    }
+    return captured;
+  }
+
+  /**
+   * Moves a piece, keeping the position key up to date. Every move of a piece on the board goes
+   * through here.
+   */
+  private void movePiece(Piece piece, int row, int col) {
+    if (piece.isAt(row, col)) {
+      return;
+    }
+
+    boolean castlingPiece = !piece.hasMoved() && (piece instanceof King || piece instanceof Rook);
+    toggle(piece);
+    piece.moveTo(row, col);
+    toggle(piece);
+
+    if (castlingPiece) {
+      castlingRights = computeCastlingRights();
+    }
+  }
+
+  /**
+   * Adds or removes a piece on its current square in the bitboards and the position key.
+   */
+  private void toggle(Piece piece) {
+    int index = BitBoard.indexOf(piece);
+    int square = Bitboards.square(piece.row(), piece.col());
+    long bit = Bitboards.bit(square);
+
+    pieceBoards[index] ^= bit;
+    occupied ^= bit;
+    pieceKey ^= Zobrist.piece(index, square);
+    if ((pieceBoards[index] & bit) != 0) {
+      material += Material.of(index, square);
+    } else {
+      material -= Material.of(index, square);
+    }
+    positionChanged();
+  }
+
+  private void positionChanged() {
+    attackMapsValid[BitBoard.BOTTOM] = false;
+    attackMapsValid[BitBoard.TOP] = false;
+    kingSafetyValid[BitBoard.BOTTOM] = false;
+    kingSafetyValid[BitBoard.TOP] = false;
+    gameState = null;
+  }
+
+  /**
+   * Returns every square attacked by a team. Only recalculated when the position has changed.
+   */
+  private long getAttackMap(boolean isTop) {
+    int team = isTop ? BitBoard.TOP : BitBoard.BOTTOM;
+    if (!attackMapsValid[team]) {
+      attackMaps[team] = BitBoard.attacks(pieceBoards, team, occupied);
+      attackMapsValid[team] = true;
+    }
+    return attackMaps[team];
+  }
+
+  private KingSafety getKingSafety(int team) {
+    if (!kingSafetyValid[team]) {
+      kingSafety[team].analyse(pieceBoards, occupied, team);
+      kingSafetyValid[team] = true;
+    }
+    return kingSafety[team];
+  }
+
+  private int indexAt(int square) {
+    long bit = Bitboards.bit(square);
+    if ((occupied & bit) == 0) {
+      return -1;
+    }
+
+    for (int i = 0; i < pieceBoards.length; i++) {
+      if ((pieceBoards[i] & bit) != 0) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Recalculates the bitboards and the position key from scratch. Only used after setting up a
+   * new board, moves update them incrementally.
+   */
+  private void updatePosition() {
+    Arrays.fill(pieceBoards, 0);
+    occupied = 0;
+    material = 0;
+    pieceKey = 0;
+    for (Piece piece : pieces) {
+      toggle(piece);
+    }
+    castlingRights = computeCastlingRights();
+  }
+
+  /**
+   * Returns one bit per team and side on which castling is still possible, the same way BitBoard
+   * derives them: an unmoved king and an unmoved rook on the same row.
+   */
+  private int computeCastlingRights() {
+    int rights = 0;
+    for (Piece king : pieces) {
+      if (!(king instanceof King) || king.hasMoved()) {
+        continue;
+      }
+
+      for (Piece rook : pieces) {
+        if (rook instanceof Rook && !rook.hasMoved() && rook.isTop() == king.isTop()
+            && rook.row() == king.row()) {
+          rights |= 1 << ((king.isTop() ? 2 : 0) + (rook.col() < king.col() ? 0 : 1));
+        }
+      }
+    }
+    return rights;
   }
 
   /**
@@ -714,43 +1345,94 @@ public final class Board implements BoardInterface {
    *
    * @return A deep copy of the board.
    */
+  @Override
   public Board getDeepCopy() {
     Board copy = new Board(true);
-    copy.pieces = new ArrayList<>(pieces)
-        .stream()
-        .map(Piece::getDeepCopy)
-        .collect(Collectors.toList());
-    copy.history = new ArrayList<>(history);
+    copy.pieces = copyPieces(pieces);
+    copy.history = history.copy();
+    copy.initialFen = initialFen;
     copy.turn = turn;
-    copy.promoteAfterAction = promoteAfterAction;
     copy.promotionIndex = promotionIndex;
     copy.selected = selected;
     copy.gameType = gameType;
     copy.gameState = gameState;
+    copy.noLegalMoves = noLegalMoves;
+    copy.keyHistory = keyHistory.clone();
+    copy.keyCount = keyCount;
+    copy.halfmoveClock = halfmoveClock;
+    copy.enPassantSquare = enPassantSquare;
+    copy.castlingRights = castlingRights;
+    copy.pieceKey = pieceKey;
+    System.arraycopy(pieceBoards, 0, copy.pieceBoards, 0, pieceBoards.length);
+    copy.occupied = occupied;
+    copy.material = material;
+    copy.snapshot = snapshot;
     return copy;
   }
 
   /**
    * Resets this board instance to the provided copy.
    *
-   * @param copy The board instance to which this instance is to be restored to.
+   * @param board The board instance to which this instance is to be restored to.
    */
-  public void reset(Board copy) {
-    if (copy == null) {
+  @Override
+  public void reset(BoardInterface board) {
+    if (!(board instanceof Board)) {
       return;
     }
 
-    this.pieces = new ArrayList<>(copy.pieces)
-        .stream()
-        .map(Piece::getDeepCopy)
-        .collect(Collectors.toList());
-    this.history = new ArrayList<>(copy.history);
+    Board copy = (Board) board;
+    this.pieces = copyPieces(copy.pieces);
+    this.history = copy.history.copy();
+    this.initialFen = copy.initialFen;
     this.turn = copy.turn;
-    this.promoteAfterAction = copy.promoteAfterAction;
     this.promotionIndex = copy.promotionIndex;
     this.selected = copy.selected;
     this.gameType = copy.gameType;
     this.gameState = copy.gameState;
+    this.noLegalMoves = copy.noLegalMoves;
+    this.keyHistory = copy.keyHistory.clone();
+    this.keyCount = copy.keyCount;
+    this.halfmoveClock = copy.halfmoveClock;
+    this.enPassantSquare = copy.enPassantSquare;
+    this.castlingRights = copy.castlingRights;
+    this.pieceKey = copy.pieceKey;
+    System.arraycopy(copy.pieceBoards, 0, pieceBoards, 0, pieceBoards.length);
+    this.occupied = copy.occupied;
+    this.material = copy.material;
+    positionChanged();
+    this.undoSize = 0;
+    this.snapshot = copy.snapshot;
+  }
+
+  /**
+   * Everything needed to take back a move made by makeMove(int). Instances are pooled and reused.
+   */
+  private static final class Undo {
+
+    private int move;
+    private int halfmoveClock;
+    private int enPassantSquare;
+    private int castlingRights;
+    private Piece piece;
+    private boolean hasMoved;
+    private Piece rook;
+    private int rookFrom;
+    private boolean rookHasMoved;
+    private Piece captured;
+    private int capturedIndex;
+    private Piece promoted;
+    private State gameState;
+    private boolean noLegalMoves;
+
+    private void clear() {
+      piece = null;
+      rook = null;
+      captured = null;
+      promoted = null;
+      gameState = null;
+    }
+
   }
 
   @Override
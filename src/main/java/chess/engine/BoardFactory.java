@@ -0,0 +1,35 @@
+package chess.engine;
+
+/**
+ * Creates boards, usually a reference to the constructor of an implementation. Every call returns
+ * a new board which shares no mutable state with any other board, so any number of games can be
+ * hosted by one JVM.
+ */
+@FunctionalInterface
+public interface BoardFactory {
+
+  BoardFactory RULE_ENGINE = Board::create;
+  BoardFactory BITBOARD = BitBoard::new;
+
+  /**
+   * Creates a new, empty board. Call one of the setup methods before playing on it.
+   *
+   * @return A new board.
+   */
+  BoardInterface create();
+
+  /**
+   * Returns the factory selected by the system property "chess.board". Use the value "bitboard"
+   * for the bitboard implementation, otherwise the rule engine is used.
+   *
+   * @return A board factory.
+   */
+  static BoardFactory fromSystemProperty() {
+    if ("bitboard".equalsIgnoreCase(System.getProperty("chess.board"))) {
+      return BITBOARD;
+    }
+
+    return RULE_ENGINE;
+  }
+
+}
@@ -3,6 +3,7 @@ package chess.engine;
 import chess.engine.pieces.Bishop;
 import chess.engine.pieces.Knight;
 import chess.engine.pieces.Piece;
+import chess.engine.pieces.PieceFactory;
 import chess.engine.pieces.Queen;
 import chess.engine.pieces.Rook;
 import java.util.List;
@@ -10,15 +11,27 @@ import java.util.List;
 public interface BoardInterface {
 
   enum Promotion {
-    Queen(Queen.class),
-    Bishop(Bishop.class),
-    Rook(Rook.class),
-    Knight(Knight.class);
+    Queen(Queen::new),
+    Bishop(Bishop::new),
+    Rook(Rook::new),
+    Knight(Knight::new);
 
-    Class<? extends Piece> type;
+    private final PieceFactory factory;
 
-    Promotion(Class<? extends Piece> type) {
-      this.type = type;
+    Promotion(PieceFactory factory) {
+      this.factory = factory;
+    }
+
+    /**
+     * Creates a piece of the type a pawn is promoted to.
+     *
+     * @param row The row of the piece.
+     * @param col The column of the piece.
+     * @param isTop Whether the piece belongs to the top or bottom team.
+     * @return A new piece.
+     */
+    public Piece create(int row, int col, boolean isTop) {
+      return factory.create(row, col, isTop);
     }
 
     public char charCode() {
@@ -55,10 +68,7 @@ public interface BoardInterface {
   }
 
   enum State {
-    Check, Checkmate, Stalemate, Draw, Normal;
-
-    protected int turn;
-
+    Check, Checkmate, Stalemate, Draw, Normal
   }
 
   enum GameType {
@@ -114,6 +124,27 @@ public interface BoardInterface {
 
   boolean doCastling(boolean queenSide);
 
+  /**
+   * Writes all legal moves of the team whose turn it is into the provided list, replacing its
+   * previous contents. Castling, en passant and every possible promotion are included.
+   *
+   * @param moves The list to fill. See Move for how the moves are encoded.
+   */
+  void generateLegalMoves(MoveList moves);
+
+  /**
+   * Makes a move in place without validating it or adding it to the history, so that it can be
+   * taken back by unmakeMove(). Any piece on the target square is captured.
+   *
+   * @param move The packed move. See Move for the encoding.
+   */
+  void makeMove(int move);
+
+  /**
+   * Takes back the last move made by makeMove(int), restoring the position exactly.
+   */
+  void unmakeMove();
+
   /**
    * Returns whether or not the king is currently threatened.
    *
@@ -148,6 +179,15 @@ public interface BoardInterface {
    */
   State getGameState();
 
+  /**
+   * Returns the latest snapshot of the board, published after every setup, selection, move,
+   * promotion and reset. Unlike the rest of the board it may be read from any thread. Positions
+   * changed by addPiece or makeMove are not published until the next of these.
+   *
+   * @return An immutable snapshot.
+   */
+  Snapshot getSnapshot();
+
   /**
    * Returns whether or not the game currently requires a promotion of a pawn.
    *
@@ -179,14 +219,39 @@ public interface BoardInterface {
    */
   int getTurn();
 
+  /**
+   * Returns a 64-bit Zobrist key of the current position. The key covers the pieces, whose turn it
+   * is, the castling rights and the en passant square, and is kept up to date as moves are made.
+   * Equal positions have equal keys, also between the different board implementations.
+   *
+   * @return A hash of the position.
+   */
+  long positionKey();
+
   List<Piece> getPieces();
 
   /**
-   * Returns the full engine instance that can be manipulated in ways not possible in an ordinary
-   * game.
+   * Returns the piece currently occupying the provided square.
+   *
+   * @param row The row number.
+   * @param col The column number.
+   * @return The piece (if any) at the provided square. Passed by reference.
+   */
+  Piece getAt(int row, int col);
+
+  /**
+   * Creates a deep copy of the current board. Changes executed to the deep copy will not interfere
+   * with the original instance.
+   *
+   * @return A deep copy of the board.
+   */
+  BoardInterface getDeepCopy();
+
+  /**
+   * Resets this board instance to the provided copy. Copies of other implementations are ignored.
    *
-   * @return A Board instance.
+   * @param copy The board instance to which this instance is to be restored to.
    */
-  Board getEngine();
+  void reset(BoardInterface copy);
 
 }
@@ -0,0 +1,151 @@
+package chess.engine;
+
+/**
+ * Reads and writes the fields of a FEN record without splitting it into strings. Rows are read
+ * from the top of the board, i.e rank 8, and the bottom team plays white.
+ */
+public final class Fen {
+
+  /** The standard starting position. */
+  public static final String STANDARD = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+
+  /**
+   * The character of every piece index, as returned by BitBoard.indexOf(Piece).
+   */
+  private static final String PIECES = "PNBRQKpnbrqk";
+
+  private final CharSequence text;
+  private int at;
+
+  Fen(CharSequence text) {
+    this.text = text;
+    while (at < text.length() && text.charAt(at) == ' ') {
+      at++;
+    }
+  }
+
+  /**
+   * Whether the current field has more characters.
+   */
+  boolean hasNext() {
+    return at < text.length() && text.charAt(at) != ' ';
+  }
+
+  char peek() {
+    if (!hasNext()) {
+      throw error("Unexpected end of field");
+    }
+    return text.charAt(at);
+  }
+
+  char next() {
+    char next = peek();
+    at++;
+    return next;
+  }
+
+  /**
+   * Moves on to the next field.
+   *
+   * @return False if there are no more fields.
+   */
+  boolean nextField() {
+    if (hasNext()) {
+      throw error("Unexpected character");
+    }
+    while (at < text.length() && text.charAt(at) == ' ') {
+      at++;
+    }
+    return at < text.length();
+  }
+
+  /**
+   * Reads a square in algebraic notation, or "-" for none.
+   *
+   * @return The square as {@code row * 8 + col}, or -1.
+   */
+  int readSquare() {
+    char file = next();
+    if (file == '-') {
+      return -1;
+    }
+
+    char rank = next();
+    if (file < 'a' || file > 'h' || rank < '1' || rank > '8') {
+      throw error("Invalid square");
+    }
+    return Bitboards.square('8' - rank, file - 'a');
+  }
+
+  int readNumber() {
+    int number = 0;
+    do {
+      char digit = next();
+      if (digit < '0' || digit > '9' || number > Integer.MAX_VALUE / 10) {
+        throw error("Invalid number");
+      }
+      number = number * 10 + digit - '0';
+    } while (hasNext());
+    return number;
+  }
+
+  IllegalArgumentException error(String message) {
+    return new IllegalArgumentException(message + " at index " + at + " of FEN: " + text);
+  }
+
+  /**
+   * Returns the index of a piece character.
+   *
+   * @param piece A character such as 'N' for a white knight.
+   * @return The piece index, or -1 if the character is not a piece.
+   */
+  static int indexOf(char piece) {
+    return PIECES.indexOf(piece);
+  }
+
+  static char charOf(int index) {
+    return PIECES.charAt(index);
+  }
+
+  static void appendSquare(StringBuilder builder, int square) {
+    builder.append((char) ('a' + Bitboards.col(square)))
+        .append((char) ('8' - Bitboards.row(square)));
+  }
+
+  /**
+   * Appends the piece placement of a position, rank 8 first.
+   *
+   * @param builder The builder to append to.
+   * @param pieceBoards One bitboard per piece index.
+   */
+  static void appendPlacement(StringBuilder builder, long[] pieceBoards) {
+    for (int row = 0; row < Board.BOARD_LENGTH; row++) {
+      int empty = 0;
+      for (int col = 0; col < Board.BOARD_LENGTH; col++) {
+        long bit = Bitboards.bit(Bitboards.square(row, col));
+        int index = 0;
+        while (index < pieceBoards.length && (pieceBoards[index] & bit) == 0) {
+          index++;
+        }
+
+        if (index == pieceBoards.length) {
+          empty++;
+          continue;
+        }
+        if (empty > 0) {
+          builder.append((char) ('0' + empty));
+          empty = 0;
+        }
+        builder.append(charOf(index));
+      }
+
+      if (empty > 0) {
+        builder.append((char) ('0' + empty));
+      }
+      if (row < Board.BOARD_LENGTH - 1) {
+        builder.append('/');
+      }
+    }
+  }
+
+}
@@ -0,0 +1,99 @@
+package chess.engine;
+
+import static chess.engine.BitBoard.BISHOP;
+import static chess.engine.BitBoard.KING;
+import static chess.engine.BitBoard.KNIGHT;
+import static chess.engine.BitBoard.PAWN;
+import static chess.engine.BitBoard.QUEEN;
+import static chess.engine.BitBoard.ROOK;
+import static chess.engine.BitBoard.TOP;
+import static chess.engine.BitBoard.TYPES;
+
+/**
+ * The pieces checking a team's king and the pieces pinned to it, found once per position. Knowing
+ * them, a move of any other piece than the king can be validated without making it: it has to
+ * stay on its pin ray and, if the king is in check, capture the checker or block the check. King
+ * moves and en passant captures still have to be simulated, as they change which lines are open.
+ */
+final class KingSafety {
+
+  private int king = -1;
+  private long checkers;
+  private long pinned;
+  private long evasions = -1L;
+
+  /**
+   * Finds the checkers and pinned pieces of a team.
+   *
+   * @param pieceBoards One bitboard per piece type and team, indexed like BitBoard.indexOf(Piece).
+   * @param occupied All occupied squares.
+   * @param team The team whose king to analyse.
+   */
+  void analyse(long[] pieceBoards, long occupied, int team) {
+    long kingBoard = pieceBoards[KING + team * TYPES];
+    checkers = 0;
+    pinned = 0;
+    evasions = -1L;
+
+    if (kingBoard == 0) {
+      king = -1;
+      return;
+    }
+
+    king = Long.numberOfTrailingZeros(kingBoard);
+    int enemy = (1 - team) * TYPES;
+    long queens = pieceBoards[QUEEN + enemy];
+    long diagonal = pieceBoards[BISHOP + enemy] | queens;
+    long straight = pieceBoards[ROOK + enemy] | queens;
+
+    checkers = Bitboards.pawnAttacks(king, team == TOP) & pieceBoards[PAWN + enemy]
+        | Bitboards.knightAttacks(king) & pieceBoards[KNIGHT + enemy]
+        | Bitboards.bishopAttacks(king, occupied) & diagonal
+        | Bitboards.rookAttacks(king, occupied) & straight;
+
+    long own = 0;
+    for (int i = 0; i < TYPES; i++) {
+      own |= pieceBoards[i + team * TYPES];
+    }
+
+    long snipers = Bitboards.bishopAttacks(king, 0) & diagonal
+        | Bitboards.rookAttacks(king, 0) & straight;
+    while (snipers != 0) {
+      int sniper = Long.numberOfTrailingZeros(snipers);
+      snipers &= snipers - 1;
+
+      long blockers = Bitboards.between(king, sniper) & occupied;
+      if (blockers != 0 && (blockers & (blockers - 1)) == 0 && (blockers & own) != 0) {
+        pinned |= blockers;
+      }
+    }
+
+    if (checkers != 0) {
+      boolean single = (checkers & (checkers - 1)) == 0;
+      evasions = single
+          ? checkers | Bitboards.between(king, Long.numberOfTrailingZeros(checkers)) : 0;
+    }
+  }
+
+  long checkers() {
+    return checkers;
+  }
+
+  /**
+   * Returns whether a move keeps the king out of check. Only valid for moves of pieces other than
+   * the king that are not en passant captures.
+   *
+   * @param from The square of the moving piece.
+   * @param to The target square.
+   * @return True or false.
+   */
+  boolean isSafe(int from, int to) {
+    long target = Bitboards.bit(to);
+    if ((evasions & target) == 0) {
+      return false;
+    }
+
+    return (pinned & Bitboards.bit(from)) == 0 || (Bitboards.line(king, from) & target) != 0;
+  }
+
+}
@@ -0,0 +1,99 @@
+package chess.engine;
+
+import java.util.Arrays;
+
+/**
+ * Material signatures: the number of pieces of every type and team but kings packed into a long,
+ * four bits per count. Bishops are counted per square colour, so the signature also tells whether
+ * bishops can ever meet. Adding or removing a piece adds or subtracts a single constant, which lets
+ * boards keep the signature up to date as pieces are toggled.
+ */
+final class Material {
+
+  private static final int BITS = 4;
+  private static final int SLOTS = 6;
+  private static final int LIGHT_BISHOP = 2;
+  private static final int DARK_BISHOP = 3;
+  private static final long LIGHT_SQUARES = 0xAA55AA55AA55AA55L;
+
+  /** The signatures without enough material for either team to checkmate, sorted. */
+  private static final long[] INSUFFICIENT;
+
+  static {
+    INSUFFICIENT = new long[] {
+        0,
+        one(BitBoard.KNIGHT, BitBoard.BOTTOM),
+        one(BitBoard.KNIGHT, BitBoard.TOP),
+        slot(LIGHT_BISHOP, BitBoard.BOTTOM),
+        slot(LIGHT_BISHOP, BitBoard.TOP),
+        slot(DARK_BISHOP, BitBoard.BOTTOM),
+        slot(DARK_BISHOP, BitBoard.TOP),
+        slot(LIGHT_BISHOP, BitBoard.BOTTOM) + slot(LIGHT_BISHOP, BitBoard.TOP),
+        slot(DARK_BISHOP, BitBoard.BOTTOM) + slot(DARK_BISHOP, BitBoard.TOP)
+    };
+    Arrays.sort(INSUFFICIENT);
+  }
+
+  private Material() {
+  }
+
+  /**
+   * Returns what a piece standing on a square adds to a signature.
+   *
+   * @param index The piece type plus six for the top team, the same index BitBoard uses.
+   * @param square The square of the piece.
+   * @return A constant to add when the piece is placed and subtract when it is removed.
+   */
+  static long of(int index, int square) {
+    int type = index % BitBoard.TYPES;
+    int team = index / BitBoard.TYPES;
+    if (type == BitBoard.KING) {
+      return 0;
+    }
+    if (type == BitBoard.BISHOP) {
+      return slot((LIGHT_SQUARES & Bitboards.bit(square)) != 0 ? LIGHT_BISHOP : DARK_BISHOP, team);
+    }
+    return one(type, team);
+  }
+
+  /**
+   * Computes the signature of a whole position.
+   *
+   * @param pieceBoards The squares of every piece type and team, indexed like BitBoard.
+   * @return A material signature.
+   */
+  static long signature(long[] pieceBoards) {
+    long signature = 0;
+    for (int index = 0; index < pieceBoards.length; index++) {
+      for (long bits = pieceBoards[index]; bits != 0; bits &= bits - 1) {
+        signature += of(index, Long.numberOfTrailingZeros(bits));
+      }
+    }
+    return signature;
+  }
+
+  /**
+   * Returns whether or not neither team could ever checkmate with the material of a signature:
+   * bare kings, a single minor piece, or one bishop each on squares of the same colour.
+   *
+   * @param signature A material signature.
+   * @return True or false.
+   */
+  static boolean isInsufficient(long signature) {
+    return Arrays.binarySearch(INSUFFICIENT, signature) >= 0;
+  }
+
+  private static long one(int type, int team) {
+    return slot(slotOf(type), team);
+  }
+
+  private static long slot(int slot, int team) {
+    return 1L << (team * SLOTS + slot) * BITS;
+  }
+
+  /** Pawns and knights keep their type, rooks and queens move up past the two bishop slots. */
+  private static int slotOf(int type) {
+    return type < BitBoard.BISHOP ? type : type + 1;
+  }
+
+}
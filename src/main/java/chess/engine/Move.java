@@ -0,0 +1,92 @@
+package chess.engine;
+
+import chess.engine.BoardInterface.Promotion;
+
+/**
+ * Moves packed into a single int. Bits 0-5 hold the source square, bits 6-11 the target square,
+ * bits 12-15 the flags and bits 16-18 the promotion, where 0 means no promotion. Squares are
+ * indexed as in {@link Bitboards}. Castling moves target the square the king ends up on.
+ */
+public final class Move {
+
+  public static final int NONE = 0;
+
+  public static final int CAPTURE = 1;
+  public static final int DOUBLE_PUSH = 2;
+  public static final int EN_PASSANT = 4;
+  public static final int CASTLING = 8;
+
+  private static final Promotion[] PROMOTIONS = Promotion.values();
+
+  private Move() {
+  }
+
+  public static int of(int from, int to, int flags) {
+    return from | to << 6 | flags << 12;
+  }
+
+  public static int of(int from, int to, int flags, Promotion promotion) {
+    return of(from, to, flags) | (promotion.ordinal() + 1) << 16;
+  }
+
+  public static int from(int move) {
+    return move & 0x3F;
+  }
+
+  public static int to(int move) {
+    return move >>> 6 & 0x3F;
+  }
+
+  public static int flags(int move) {
+    return move >>> 12 & 0xF;
+  }
+
+  public static boolean isCapture(int move) {
+    return (flags(move) & CAPTURE) != 0;
+  }
+
+  public static boolean isEnPassant(int move) {
+    return (flags(move) & EN_PASSANT) != 0;
+  }
+
+  public static boolean isCastling(int move) {
+    return (flags(move) & CASTLING) != 0;
+  }
+
+  public static boolean isPromotion(int move) {
+    return (move >>> 16 & 0x7) != 0;
+  }
+
+  /**
+   * Returns the piece a pawn is promoted to by the move.
+   *
+   * @param move The packed move.
+   * @return The promotion or null if the move is not a promotion.
+   */
+  public static Promotion promotion(int move) {
+    int promotion = move >>> 16 & 0x7;
+    return promotion == 0 ? null : PROMOTIONS[promotion - 1];
+  }
+
+  /**
+   * Converts the move into coordinate notation.
+   *
+   * @param move The packed move.
+   * @return A string in the format "e2e4", with the promotion appended if any, i.e "e7e8q".
+   */
+  public static String toString(int move) {
+    StringBuilder builder = new StringBuilder(5);
+    appendSquare(builder, from(move));
+    appendSquare(builder, to(move));
+    if (isPromotion(move)) {
+      builder.append(promotion(move).charCode());
+    }
+    return builder.toString();
+  }
+
+  private static void appendSquare(StringBuilder builder, int square) {
+    builder.append((char) ('a' + Bitboards.col(square)));
+    builder.append((char) ('0' + Board.BOARD_LENGTH - Bitboards.row(square)));
+  }
+
+}
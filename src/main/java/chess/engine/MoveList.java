@@ -0,0 +1,61 @@
+package chess.engine;
+
+/**
+ * A reusable buffer of packed moves. See {@link Move} for the encoding.
+ */
+public final class MoveList {
+
+  /**
+   * No legal chess position has more than 218 moves.
+   */
+  public static final int CAPACITY = 256;
+
+  private final int[] moves = new int[CAPACITY];
+  private int size;
+
+  public void add(int move) {
+    moves[size++] = move;
+  }
+
+  public int get(int index) {
+    return moves[index];
+  }
+
+  /**
+   * Replaces a move, i.e to reorder the list in place.
+   *
+   * @param index The index of the move to replace.
+   * @param move The packed move.
+   */
+  public void set(int index, int move) {
+    moves[index] = move;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  public void clear() {
+    size = 0;
+  }
+
+  /**
+   * Returns whether or not the list contains the provided move.
+   *
+   * @param move The packed move.
+   * @return True or false.
+   */
+  public boolean contains(int move) {
+    for (int i = 0; i < size; i++) {
+      if (moves[i] == move) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+}
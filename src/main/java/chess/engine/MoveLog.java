@@ -0,0 +1,127 @@
+package chess.engine;
+
+import chess.engine.BoardInterface.Promotion;
+import chess.engine.pieces.Piece;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The moves of a game packed into an int array, one entry per move. Bits 0-19 hold the move as
+ * encoded by Move, including the promotion once it is chosen, bits 20-23 the index of the moving
+ * piece as used by BitBoard, bit 24 whether it had moved before and bit 25 whether the move waits
+ * for a promotion. Actions are only created when the history is read.
+ */
+final class MoveLog {
+
+  private static final int MOVE_MASK = 0xFFFFF;
+  private static final int PIECE_SHIFT = 20;
+  private static final int HAD_MOVED = 1 << 24;
+  private static final int PROMOTING = 1 << 25;
+  private static final int PROMOTION_MASK = 0x70000;
+
+  private int[] entries = new int[64];
+  private int size;
+
+  /**
+   * Logs a move.
+   *
+   * @param move The packed move, see Move.
+   * @param index The index of the moving piece, as returned by BitBoard.indexOf(Piece).
+   * @param hadMoved Whether the piece had moved before the move.
+   * @param promoting Whether the move ends on the last row and waits for a promotion.
+   */
+  void add(int move, int index, boolean hadMoved, boolean promoting) {
+    if (size == entries.length) {
+      entries = Arrays.copyOf(entries, size * 2);
+    }
+    entries[size++] = (move & MOVE_MASK)
+        | index << PIECE_SHIFT
+        | (hadMoved ? HAD_MOVED : 0)
+        | (promoting ? PROMOTING : 0);
+  }
+
+  void add(Action action) {
+    add(action.move(), BitBoard.indexOf(action.mover()), action.hadMoved(),
+        action.isPromoting());
+  }
+
+  /**
+   * Records the piece the pawn of the last move was promoted to.
+   *
+   * @param promotion The promotion.
+   */
+  void setPromotion(Promotion promotion) {
+    int last = entries[size - 1] & ~PROMOTION_MASK;
+    entries[size - 1] = last | Move.of(0, 0, 0, promotion);
+  }
+
+  int size() {
+    return size;
+  }
+
+  /**
+   * Returns the packed move of an entry.
+   *
+   * @param index The index of the entry, zero being the first move of the game.
+   * @return The packed move, see Move.
+   */
+  int move(int index) {
+    return entries[index] & MOVE_MASK;
+  }
+
+  void clear() {
+    size = 0;
+  }
+
+  MoveLog copy() {
+    MoveLog copy = new MoveLog();
+    copy.entries = Arrays.copyOf(entries, Math.max(size, 1));
+    copy.size = size;
+    return copy;
+  }
+
+  /**
+   * Creates an action describing a logged move, with a new piece standing on the source square.
+   *
+   * @param index The index of the entry, zero being the first move of the game.
+   * @return A new action.
+   */
+  Action toAction(int index) {
+    int entry = entries[index];
+    int from = Move.from(entry);
+    int pieceIndex = entry >>> PIECE_SHIFT & 0xF;
+    Piece piece = BitBoard.createPiece(pieceIndex % BitBoard.TYPES,
+        Bitboards.row(from), Bitboards.col(from), pieceIndex / BitBoard.TYPES == BitBoard.TOP);
+    piece.restore(piece.row(), piece.col(), (entry & HAD_MOVED) != 0);
+
+    Action action = new Action(piece, entry & MOVE_MASK);
+    if ((entry & PROMOTING) != 0) {
+      action.setPromoting();
+    }
+    return action;
+  }
+
+  /**
+   * Returns a read-only view of the log, creating an action every time an element is read.
+   *
+   * @return A list of actions, oldest first.
+   */
+  List<Action> asList() {
+    return new AbstractList<Action>() {
+      @Override
+      public Action get(int index) {
+        if (index < 0 || index >= size) {
+          throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        return toAction(index);
+      }
+
+      @Override
+      public int size() {
+        return size;
+      }
+    };
+  }
+
+}
@@ -0,0 +1,92 @@
+package chess.engine;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Counts the leaf nodes of the legal move tree of a position (perft). Used to verify the move
+ * generator and makeMove/unmakeMove against known node counts, and as a throughput measure.
+ */
+public final class Perft {
+
+  private final BoardInterface board;
+  private MoveList[] moveLists = new MoveList[0];
+
+  public Perft(BoardInterface board) {
+    this.board = board;
+  }
+
+  /**
+   * Counts all leaf nodes reachable from the current position in exactly the provided amount of
+   * moves. The board is left as it was.
+   *
+   * @param depth The amount of moves, one per team and turn.
+   * @return The number of leaf nodes.
+   */
+  public long perft(int depth) {
+    if (depth <= 0) {
+      return 1;
+    }
+
+    ensureMoveLists(depth);
+    return count(depth);
+  }
+
+  /**
+   * Counts the leaf nodes per legal move in the current position, which makes it easy to find the
+   * move whose subtree differs from a reference engine.
+   *
+   * @param depth The amount of moves, including the first one.
+   * @return The number of leaf nodes keyed by move in the format of Move.toString(int), in the
+   *     order the moves were generated.
+   */
+  public Map<String, Long> divide(int depth) {
+    Map<String, Long> result = new LinkedHashMap<>();
+    if (depth <= 0) {
+      return result;
+    }
+
+    ensureMoveLists(depth);
+    MoveList moves = moveLists[depth];
+    board.generateLegalMoves(moves);
+
+    for (int i = 0; i < moves.size(); i++) {
+      int move = moves.get(i);
+      board.makeMove(move);
+      result.put(Move.toString(move), depth == 1 ? 1 : count(depth - 1));
+      board.unmakeMove();
+    }
+
+    return result;
+  }
+
+  private long count(int depth) {
+    MoveList moves = moveLists[depth];
+    board.generateLegalMoves(moves);
+
+    if (depth == 1) {
+      return moves.size();
+    }
+
+    long nodes = 0;
+    for (int i = 0; i < moves.size(); i++) {
+      board.makeMove(moves.get(i));
+      nodes += count(depth - 1);
+      board.unmakeMove();
+    }
+    return nodes;
+  }
+
+  private void ensureMoveLists(int depth) {
+    if (moveLists.length > depth) {
+      return;
+    }
+
+    MoveList[] lists = new MoveList[depth + 1];
+    for (int i = 0; i < lists.length; i++) {
+      lists[i] = i < moveLists.length ? moveLists[i] : new MoveList();
+    }
+    moveLists = lists;
+  }
+
+}
@@ -0,0 +1,100 @@
+package chess.engine;
+
+import chess.engine.BoardInterface.State;
+import chess.engine.pieces.Piece;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * An immutable view of a board, published by the board after every setup, selection, move,
+ * promotion and reset. Snapshots may be read from any thread without locking. Only the piece
+ * boards are copied when the snapshot is taken, the pieces are created from them on first use and
+ * must not be modified.
+ */
+public final class Snapshot {
+
+  private final long[] pieceBoards;
+  private final long moved;
+  private final int selectedSquare;
+  private volatile List<Piece> pieces;
+  private final int turn;
+  private final boolean topTurn;
+  private final State gameState;
+  private final boolean promoting;
+  private final long positionKey;
+
+  /**
+   * Takes a snapshot of a position.
+   *
+   * @param pieceBoards The squares of every piece index, see BitBoard. Copied.
+   * @param moved The squares of the pieces that have moved.
+   * @param selectedSquare The square of the selected piece, or -1 if none is selected.
+   */
+  Snapshot(long[] pieceBoards, long moved, int selectedSquare, int turn, boolean topTurn,
+      State gameState, boolean promoting, long positionKey) {
+    this.pieceBoards = pieceBoards.clone();
+    this.moved = moved;
+    this.selectedSquare = selectedSquare;
+    this.turn = turn;
+    this.topTurn = topTurn;
+    this.gameState = gameState;
+    this.promoting = promoting;
+    this.positionKey = positionKey;
+  }
+
+  /**
+   * The pieces on the board, including the selected piece in the state Selected.
+   *
+   * @return An unmodifiable list, created on the first call.
+   */
+  public List<Piece> getPieces() {
+    List<Piece> result = pieces;
+    if (result == null) {
+      result = new ArrayList<>(32);
+      for (int index = 0; index < pieceBoards.length; index++) {
+        for (long bits = pieceBoards[index]; bits != 0; bits &= bits - 1) {
+          int square = Long.numberOfTrailingZeros(bits);
+          int row = Bitboards.row(square);
+          int col = Bitboards.col(square);
+          Piece piece = BitBoard.createPiece(index % BitBoard.TYPES, row, col,
+              index / BitBoard.TYPES == BitBoard.TOP);
+          piece.restore(row, col, (moved & Bitboards.bit(square)) != 0);
+          if (square == selectedSquare) {
+            piece.setState(Piece.State.Selected);
+          }
+          result.add(piece);
+        }
+      }
+      result = Collections.unmodifiableList(result);
+      pieces = result;
+    }
+    return result;
+  }
+
+  public int getTurn() {
+    return turn;
+  }
+
+  public boolean isTopTurn() {
+    return topTurn;
+  }
+
+  public State getGameState() {
+    return gameState;
+  }
+
+  /**
+   * Whether the board is waiting for a pawn to be promoted.
+   *
+   * @return True if no move can be made before promoteTo has been called.
+   */
+  public boolean isPromoting() {
+    return promoting;
+  }
+
+  public long positionKey() {
+    return positionKey;
+  }
+
+}
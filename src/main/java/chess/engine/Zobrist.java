@@ -0,0 +1,71 @@
+package chess.engine;
+
+import java.util.Random;
+
+/**
+ * Random keys used to hash positions. A position key is the XOR of one key per piece and square,
+ * one key for the castling rights, one for the file of the en passant square if a pawn can capture
+ * on it and one if it is the top team's turn. Both board implementations use the same keys, so
+ * equal positions get equal keys no matter which implementation they are played on.
+ */
+final class Zobrist {
+
+  private static final long[][] PIECES = new long[12][64];
+  private static final long[] CASTLING = new long[16];
+  private static final long[] EN_PASSANT = new long[Board.BOARD_LENGTH];
+  private static final long TOP_TURN;
+
+  static {
+    Random random = new Random(0x5EED_C0DEL);
+    for (long[] keys : PIECES) {
+      for (int i = 0; i < keys.length; i++) {
+        keys[i] = random.nextLong();
+      }
+    }
+    for (int i = 1; i < CASTLING.length; i++) {
+      CASTLING[i] = random.nextLong();
+    }
+    for (int i = 0; i < EN_PASSANT.length; i++) {
+      EN_PASSANT[i] = random.nextLong();
+    }
+    TOP_TURN = random.nextLong();
+  }
+
+  private Zobrist() {
+  }
+
+  /**
+   * Returns the key of a piece standing on a square.
+   *
+   * @param index The piece type plus six for the top team, the same index BitBoard uses.
+   * @param square The square of the piece.
+   * @return A random key.
+   */
+  static long piece(int index, int square) {
+    return PIECES[index][square];
+  }
+
+  /**
+   * Returns the key of everything in a position but the pieces.
+   *
+   * @param castlingRights One bit per team and side, bit {@code team * 2} for the queen side and
+   *     bit {@code team * 2 + 1} for the king side, with the top team being team one.
+   * @param enPassantSquare The square a pawn may move to capturing en passant, or -1 if none. It
+   *     is only hashed if one of the pawns of the team to move attacks it, so that a double push
+   *     nobody can capture does not make the position differ from the same position without it.
+   * @param isTopTurn Whether it is the top team's turn.
+   * @param pawns The pawns of the team whose turn it is.
+   * @return A random key.
+   */
+  static long state(int castlingRights, int enPassantSquare, boolean isTopTurn, long pawns) {
+    long key = CASTLING[castlingRights];
+    if (enPassantSquare >= 0 && (Bitboards.pawnAttacks(enPassantSquare, !isTopTurn) & pawns) != 0) {
+      key ^= EN_PASSANT[Bitboards.col(enPassantSquare)];
+    }
+    if (isTopTurn) {
+      key ^= TOP_TURN;
+    }
+    return key;
+  }
+
+}
@@ -0,0 +1,342 @@
+package chess.engine.pgn;
+
+import chess.engine.Board;
+import chess.engine.Move;
+import chess.engine.MoveList;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads the games of a PGN file one at a time and replays them on a board. The file is read
+ * through a fixed buffer, so archives of any size are read with the same amount of memory, and
+ * tokens are kept in reused buffers rather than strings. Comments, variations and annotations are
+ * skipped, and of the tags only FEN is used.
+ *
+ * <p>A reader is not thread-safe. Use one reader per thread, e.g. one per file.
+ */
+public final class PgnReader implements Closeable {
+
+  private static final int BUFFER_SIZE = 1 << 16;
+  private static final int MAX_TOKEN = 32;
+  private static final String[] RESULTS = {"1-0", "0-1", "1/2-1/2", "*"};
+
+  private final ReadableByteChannel channel;
+  private final ByteBuffer buffer;
+  private final char[] token = new char[MAX_TOKEN];
+  private final StringBuilder fen = new StringBuilder(100);
+  private final StringBuilder result = new StringBuilder(8);
+  private final MoveList legal = new MoveList();
+
+  private int pending = -1;
+  private long games;
+
+  /**
+   * Creates a reader of a channel, such as a file channel. The channel is closed with the reader.
+   *
+   * @param channel The channel to read from.
+   */
+  public PgnReader(ReadableByteChannel channel) {
+    this.channel = channel;
+    buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    buffer.flip();
+  }
+
+  /**
+   * Opens a reader of a PGN file.
+   *
+   * @param path The path of the file.
+   * @return A new reader.
+   * @throws IOException If the file can not be opened.
+   */
+  public static PgnReader open(Path path) throws IOException {
+    return new PgnReader(FileChannel.open(path, StandardOpenOption.READ));
+  }
+
+  /**
+   * Reads the next game and replays its moves on the board, starting from the standard position or
+   * the position of its FEN tag. The moves are played with Board.playMove, so they end up in the
+   * history of the board.
+   *
+   * @param board The board to replay the game on.
+   * @return False if there are no more games.
+   * @throws IOException If reading fails.
+   * @throws IllegalArgumentException If the game contains a move which is not legal or an invalid
+   *     FEN tag. The rest of the game is skipped, so reading may continue with the next game.
+   */
+  public boolean readGame(Board board) throws IOException {
+    fen.setLength(0);
+    result.setLength(0);
+    boolean started = false;
+    boolean tags = false;
+    String error = null;
+
+    int c;
+    while ((c = read()) >= 0) {
+      if (c == '[') {
+        if (started) {
+          pending = c;
+          break;
+        }
+        readTag();
+        tags = true;
+      } else if (c == '{') {
+        skipUntil('}');
+      } else if (c == ';' || c == '%') {
+        skipUntil('\n');
+      } else if (c == '(') {
+        skipVariation();
+      } else if (c == '$') {
+        readToken(c);
+      } else if (c > ' ' && c < 0x7F) {
+        if (!started) {
+          error = setup(board);
+          started = true;
+        }
+
+        int length = readToken(c);
+        if (c >= '0' && c <= '9' || c == '*') {
+          if (isResult(length)) {
+            result.append(token, 0, length);
+            break;
+          }
+          if (isMoveNumber(length)) {
+            continue;
+          }
+        }
+
+        if (error == null && !isEnPassantSuffix(length)) {
+          error = play(board, length);
+        }
+      }
+    }
+
+    if (!started) {
+      if (!tags) {
+        return false;
+      }
+      error = setup(board);
+    }
+    games++;
+
+    if (error != null) {
+      throw new IllegalArgumentException(error);
+    }
+    return true;
+  }
+
+  /**
+   * The result of the last game read, i.e "1-0", "0-1", "1/2-1/2" or "*".
+   *
+   * @return The result, empty if the game had none.
+   */
+  public CharSequence getResult() {
+    return result;
+  }
+
+  /**
+   * The number of games read so far.
+   */
+  public long getGames() {
+    return games;
+  }
+
+  @Override
+  public void close() throws IOException {
+    channel.close();
+  }
+
+  /**
+   * Sets up the starting position of the game.
+   *
+   * @return A description of the error, or null if the position was set up.
+   */
+  private String setup(Board board) {
+    if (fen.length() == 0) {
+      board.setupStandardBoard(false);
+      return null;
+    }
+
+    try {
+      board.setupFromFen(fen);
+      return null;
+    } catch (IllegalArgumentException e) {
+      return e.getMessage();
+    }
+  }
+
+  /**
+   * Plays the move of the token in the token buffer. Any failure of the board to play the move is
+   * reported as an illegal move, so that the rest of the game is skipped and reading may continue.
+   *
+   * @return A description of the error, or null if the move was played.
+   */
+  private String play(Board board, int length) {
+    int ply = board.getHistory().size() + 1;
+    try {
+      board.generateLegalMoves(legal);
+      int move = San.parse(token, length, board, legal);
+      if (move != Move.NONE && board.playMove(move)) {
+        return null;
+      }
+    } catch (RuntimeException e) {
+      return "Illegal move " + new String(token, 0, length) + " at ply " + ply + ": " + e;
+    }
+    return "Illegal move " + new String(token, 0, length) + " at ply " + ply;
+  }
+
+  /**
+   * Returns whether the token is one of the four results. Castling written with zeros, i.e 0-0,
+   * looks much the same but is a move.
+   */
+  private boolean isResult(int length) {
+    for (String result : RESULTS) {
+      if (result.length() == length && isToken(result)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private boolean isToken(String text) {
+    for (int i = 0; i < text.length(); i++) {
+      if (token[i] != text.charAt(i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Returns whether the token is a move number, whose dots are not part of the token.
+   */
+  private boolean isMoveNumber(int length) {
+    for (int i = 0; i < length; i++) {
+      if (token[i] < '0' || token[i] > '9') {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private boolean isEnPassantSuffix(int length) {
+    return length == 4 && token[0] == 'e' && token[1] == '.' && token[2] == 'p';
+  }
+
+  /**
+   * Reads a tag pair, after its opening bracket, keeping the value if it is the FEN tag.
+   */
+  private void readTag() throws IOException {
+    int c = skipWhitespace();
+    int length = c >= 0 ? readToken(c) : 0;
+    boolean isFen = length == 3 && token[0] == 'F' && token[1] == 'E' && token[2] == 'N';
+
+    c = skipWhitespace();
+    if (c == '"') {
+      while ((c = read()) >= 0 && c != '"') {
+        if (c == '\\') {
+          c = read();
+        }
+        if (isFen && c >= 0) {
+          fen.append((char) c);
+        }
+      }
+    }
+    skipUntil(']');
+  }
+
+  /**
+   * Reads a token into the token buffer, starting with a character already read. Move numbers end
+   * at their periods, everything else at whitespace or the start of a comment or variation.
+   *
+   * @return The length of the token, at most the size of the buffer.
+   */
+  private int readToken(int first) throws IOException {
+    int length = 0;
+    boolean number = first >= '0' && first <= '9';
+    int c = first;
+    while (true) {
+      if (length < MAX_TOKEN) {
+        token[length++] = (char) c;
+      }
+
+      c = read();
+      if (c <= ' ' || c == '{' || c == '(' || c == ')' || c == '[' || c == ';') {
+        break;
+      }
+      if (number && c == '.') {
+        while ((c = read()) == '.') {
+          continue;
+        }
+        break;
+      }
+    }
+
+    if (c > ' ') {
+      pending = c;
+    }
+    return length;
+  }
+
+  private void skipVariation() throws IOException {
+    int depth = 1;
+    int c;
+    while (depth > 0 && (c = read()) >= 0) {
+      if (c == '(') {
+        depth++;
+      } else if (c == ')') {
+        depth--;
+      } else if (c == '{') {
+        skipUntil('}');
+      } else if (c == ';') {
+        skipUntil('\n');
+      }
+    }
+  }
+
+  private void skipUntil(int end) throws IOException {
+    int c;
+    while ((c = read()) >= 0 && c != end) {
+      continue;
+    }
+  }
+
+  private int skipWhitespace() throws IOException {
+    int c;
+    while ((c = read()) >= 0 && c <= ' ') {
+      continue;
+    }
+    return c;
+  }
+
+  /**
+   * Returns the next byte of the channel, refilling the buffer when it runs out.
+   *
+   * @return The byte, or -1 at the end of the channel.
+   */
+  private int read() throws IOException {
+    if (pending >= 0) {
+      int c = pending;
+      pending = -1;
+      return c;
+    }
+
+    if (!buffer.hasRemaining()) {
+      buffer.clear();
+      int read;
+      do {
+        read = channel.read(buffer);
+      } while (read == 0);
+      buffer.flip();
+      if (read < 0) {
+        return -1;
+      }
+    }
+    return buffer.get() & 0xFF;
+  }
+
+}
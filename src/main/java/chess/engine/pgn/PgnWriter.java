@@ -0,0 +1,158 @@
+package chess.engine.pgn;
+
+import chess.engine.Action;
+import chess.engine.Board;
+import chess.engine.BoardInterface.State;
+import chess.engine.Fen;
+import chess.engine.Move;
+import chess.engine.MoveList;
+import java.io.IOException;
+
+/**
+ * Writes games in PGN, replaying the history of a board to find the notation of every move. Lines
+ * of movetext are kept below 80 characters.
+ *
+ * <p>A writer is not thread-safe. Use one writer per thread.
+ */
+public final class PgnWriter {
+
+  private static final int LINE_LENGTH = 79;
+
+  private final Appendable out;
+  private final Board replay = Board.create();
+  private final MoveList legal = new MoveList();
+  private final StringBuilder line = new StringBuilder(LINE_LENGTH + 16);
+  private final StringBuilder move = new StringBuilder(16);
+
+  /**
+   * Creates a writer appending to the provided output, e.g a buffered file writer.
+   *
+   * @param out The output.
+   */
+  public PgnWriter(Appendable out) {
+    this.out = out;
+  }
+
+  /**
+   * Writes a tag pair. Tags must be written before the game they belong to.
+   *
+   * @param name The name of the tag, e.g "Event".
+   * @param value The value, which is escaped as needed.
+   * @throws IOException If writing fails.
+   */
+  public void writeTag(String name, String value) throws IOException {
+    out.append('[').append(name).append(" \"");
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      if (c == '"' || c == '\\') {
+        out.append('\\');
+      }
+      out.append(c);
+    }
+    out.append("\"]\n");
+  }
+
+  /**
+   * Writes the moves in the history of a board, followed by the result of the game. The Result tag
+   * is written first, along with the SetUp and FEN tags if the game did not start from the
+   * standard position.
+   *
+   * @param game The board the game was played on.
+   * @throws IOException If writing fails.
+   */
+  public void writeGame(Board game) throws IOException {
+    String result = resultOf(game.getGameState(), game.isTopTurn());
+    String initialFen = game.getInitialFen();
+    writeTag("Result", result);
+    if (!Fen.STANDARD.equals(initialFen)) {
+      writeTag("SetUp", "1");
+      writeTag("FEN", initialFen);
+    }
+    out.append('\n');
+
+    replay.setupFromFen(initialFen);
+    int number = (replay.getTurn() + 1) / 2;
+    line.setLength(0);
+    if (replay.isTopTurn()) {
+      write(move.append(number).append("..."));
+    }
+
+    for (Action action : game.getHistory()) {
+      replay.generateLegalMoves(legal);
+      int played = find(action.move());
+      if (played == Move.NONE) {
+        throw new IllegalStateException("The history does not match the moves of the board.");
+      }
+
+      boolean topMove = replay.isTopTurn();
+      if (!topMove) {
+        write(move.append(number).append('.'));
+      }
+      San.append(move, played, replay, legal);
+      replay.playMove(played);
+      if (topMove) {
+        number++;
+      }
+
+      State state = replay.getGameState();
+      if (state == State.Checkmate) {
+        move.append('#');
+      } else if (state == State.Check) {
+        move.append('+');
+      }
+      write(move);
+    }
+
+    write(move.append(result));
+    out.append(line).append("\n\n");
+  }
+
+  /**
+   * Returns the result of a game in the format of PGN.
+   *
+   * @param state The state of the game.
+   * @param topTurn Whether the top team, black, is to move.
+   * @return "1-0", "0-1", "1/2-1/2" or "*" if the game is not over.
+   */
+  static String resultOf(State state, boolean topTurn) {
+    switch (state) {
+      case Checkmate:
+        return topTurn ? "1-0" : "0-1";
+      case Stalemate:
+      case Draw:
+        return "1/2-1/2";
+      default:
+        return "*";
+    }
+  }
+
+  /**
+   * Finds the legal move with the same squares and promotion as a move of the history.
+   */
+  private int find(int played) {
+    for (int i = 0; i < legal.size(); i++) {
+      int move = legal.get(i);
+      if (Move.from(move) == Move.from(played) && Move.to(move) == Move.to(played)
+          && Move.promotion(move) == Move.promotion(played)) {
+        return move;
+      }
+    }
+    return Move.NONE;
+  }
+
+  /**
+   * Adds the token to the current line, starting a new line first if it would become too long.
+   */
+  private void write(StringBuilder token) throws IOException {
+    if (line.length() > 0 && line.length() + 1 + token.length() > LINE_LENGTH) {
+      out.append(line).append('\n');
+      line.setLength(0);
+    }
+    if (line.length() > 0) {
+      line.append(' ');
+    }
+    line.append(token);
+    token.setLength(0);
+  }
+
+}
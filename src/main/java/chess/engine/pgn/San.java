@@ -0,0 +1,166 @@
+package chess.engine.pgn;
+
+import chess.engine.Bitboards;
+import chess.engine.Board;
+import chess.engine.BoardInterface.Promotion;
+import chess.engine.Move;
+import chess.engine.MoveList;
+import chess.engine.pieces.Piece;
+
+/**
+ * Converts between packed moves and standard algebraic notation (SAN), e.g "Nbd7", "exd6",
+ * "e8=Q+" or "O-O-O". Moves are matched against the legal moves of the position, which must be
+ * generated by the caller before the move is played.
+ */
+final class San {
+
+  private San() {
+  }
+
+  /**
+   * Finds the legal move described by a SAN token. Check, mate and annotation suffixes are
+   * ignored, and the promotion may be written with or without the '='.
+   *
+   * @param token The characters of the token.
+   * @param length The length of the token.
+   * @param board The board, in the position the move is played from.
+   * @param legal The legal moves of that position.
+   * @return The packed move, or Move.NONE if there is no such move or more than one.
+   */
+  static int parse(char[] token, int length, Board board, MoveList legal) {
+    while (length > 0 && "+#!?".indexOf(token[length - 1]) >= 0) {
+      length--;
+    }
+
+    if (length >= 3 && (token[0] == 'O' || token[0] == '0')) {
+      int col = length >= 5 ? 2 : 6;
+      for (int i = 0; i < legal.size(); i++) {
+        int move = legal.get(i);
+        if (Move.isCastling(move) && Bitboards.col(Move.to(move)) == col) {
+          return move;
+        }
+      }
+      return Move.NONE;
+    }
+
+    Promotion promotion = null;
+    if (length >= 3 && "NBRQ".indexOf(token[length - 1]) >= 0) {
+      promotion = Promotion.fromChar(token[length - 1]);
+      length -= token[length - 2] == '=' ? 2 : 1;
+    }
+    if (length < 2) {
+      return Move.NONE;
+    }
+
+    int toCol = token[length - 2] - 'a';
+    int toRow = '8' - token[length - 1];
+    if (!Bitboards.isInside(toRow, toCol)) {
+      return Move.NONE;
+    }
+    length -= 2;
+
+    int start = 0;
+    char piece = 'P';
+    if (length > 0 && "NBRQK".indexOf(token[0]) >= 0) {
+      piece = token[0];
+      start = 1;
+    }
+
+    int fromCol = -1;
+    int fromRow = -1;
+    for (int i = start; i < length; i++) {
+      char c = token[i];
+      if (c >= 'a' && c <= 'h') {
+        fromCol = c - 'a';
+      } else if (c >= '1' && c <= '8') {
+        fromRow = '8' - c;
+      } else if (c != 'x' && c != '-' && c != ':') {
+        return Move.NONE;
+      }
+    }
+
+    int to = Bitboards.square(toRow, toCol);
+    int found = Move.NONE;
+    for (int i = 0; i < legal.size(); i++) {
+      int move = legal.get(i);
+      int from = Move.from(move);
+      if (Move.to(move) != to || Move.isCastling(move) || Move.promotion(move) != promotion
+          || fromCol >= 0 && Bitboards.col(from) != fromCol
+          || fromRow >= 0 && Bitboards.row(from) != fromRow
+          || letterAt(board, from) != piece) {
+        continue;
+      }
+
+      if (found != Move.NONE) {
+        return Move.NONE;
+      }
+      found = move;
+    }
+    return found;
+  }
+
+  /**
+   * Appends a legal move in SAN, without the check or mate suffix which depends on the position
+   * after the move.
+   *
+   * @param builder The builder to append to.
+   * @param move The packed move.
+   * @param board The board, in the position the move is played from.
+   * @param legal The legal moves of that position.
+   */
+  static void append(StringBuilder builder, int move, Board board, MoveList legal) {
+    int from = Move.from(move);
+    int to = Move.to(move);
+    if (Move.isCastling(move)) {
+      builder.append(Bitboards.col(to) == 2 ? "O-O-O" : "O-O");
+      return;
+    }
+
+    char piece = letterAt(board, from);
+    if (piece != 'P') {
+      builder.append(piece);
+
+      boolean ambiguous = false;
+      boolean sameCol = false;
+      boolean sameRow = false;
+      for (int i = 0; i < legal.size(); i++) {
+        int other = Move.from(legal.get(i));
+        if (other == from || Move.to(legal.get(i)) != to || letterAt(board, other) != piece) {
+          continue;
+        }
+
+        ambiguous = true;
+        sameCol |= Bitboards.col(other) == Bitboards.col(from);
+        sameRow |= Bitboards.row(other) == Bitboards.row(from);
+      }
+
+      if (ambiguous && (!sameCol || sameRow)) {
+        builder.append((char) ('a' + Bitboards.col(from)));
+      }
+      if (sameCol) {
+        builder.append((char) ('8' - Bitboards.row(from)));
+      }
+    } else if (Move.isCapture(move)) {
+      builder.append((char) ('a' + Bitboards.col(from)));
+    }
+
+    if (Move.isCapture(move)) {
+      builder.append('x');
+    }
+    builder.append((char) ('a' + Bitboards.col(to))).append((char) ('8' - Bitboards.row(to)));
+
+    Promotion promotion = Move.promotion(move);
+    if (promotion != null) {
+      builder.append('=').append(Character.toUpperCase(promotion.charCode()));
+    }
+  }
+
+  /**
+   * The upper case letter of the piece on a square, 'P' for pawns.
+   */
+  private static char letterAt(Board board, int square) {
+    Piece piece = board.getAt(Bitboards.row(square), Bitboards.col(square));
+    return piece == null ? 0 : Character.toUpperCase(piece.toChar());
+  }
+
+}
@@ -1,6 +1,6 @@
 package chess.engine.pieces;
 
-import chess.engine.Board;
+import chess.engine.Bitboards;
 
 public class Bishop extends Piece {
 
@@ -8,18 +8,23 @@ public class Bishop extends Piece {
     super(row, col, isTop);
   }
 
-  @Override
-  void calculatePossiblePositions() {
-    for (int i = 1; i < Board.BOARD_LENGTH; i++) {
+  private Bishop(Bishop other) {
+    super(other);
+  }
 
-      new Square(row() - i, col() + i, possiblePositions);
-      new Square(row() - i, col() - i, possiblePositions);
-      new Square(row() + i, col() + i, possiblePositions);
-      new Square(row() + i, col() - i, possiblePositions);
+  @Override
+  public long getPositionMask() {
+    return Bitboards.bishopAttacks(square(), 0);
+  }
 
-    }
+  @Override
+  public long getPositionMask(long occupied) {
+    return Bitboards.bishopAttacks(square(), occupied);
+  }
 
-    possibleAttacks.addAll(possiblePositions);
+  @Override
+  public Bishop getDeepCopy() {
+    return new Bishop(this);
   }
 
   @Override
@@ -1,9 +1,20 @@
 package chess.engine.pieces;
 
+import chess.engine.Bitboards;
 import chess.engine.rules.Rule;
+import chess.engine.rules.RuleChain;
 
 public class King extends Piece {
 
+  private static final RuleChain RULES = RuleChain.of(
+      Rule.KING_CASTLING,
+      Rule.NO_CHANGE,
+      Rule.MOVEMENT,
+      Rule.ATTACK,
+      Rule.NO_OVERLAP,
+      Rule.KING_INVULNERABILITY,
+      Rule.NO_CHECK);
+
   /**
    * A king piece.
    *
@@ -13,21 +24,25 @@ public class King extends Piece {
    */
   public King(int row, int col, boolean isTop) {
     super(row, col, isTop);
+  }
 
-    rules.add(Rule.KING_CASTLING);
-
+  private King(King other) {
+    super(other);
   }
 
   @Override
-  void calculatePossiblePositions() {
-    for (int i = 0; i < 9; i++) {
-
-      new Square(row() - 1 + i / 3, col() - 1 + i % 3, possiblePositions);
+  RuleChain rules() {
+    return RULES;
+  }
 
-    }
+  @Override
+  public long getPositionMask() {
+    return Bitboards.kingAttacks(square());
+  }
 
-    possiblePositions.removeIf(m -> m.isAt(row(), col()));
-    possibleAttacks.addAll(possiblePositions);
+  @Override
+  public King getDeepCopy() {
+    return new King(this);
   }
 
   @Override
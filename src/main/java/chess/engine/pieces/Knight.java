@@ -1,9 +1,18 @@
 package chess.engine.pieces;
 
+import chess.engine.Bitboards;
 import chess.engine.rules.Rule;
+import chess.engine.rules.RuleChain;
 
 public class Knight extends Piece {
 
+  private static final RuleChain RULES = RuleChain.of(
+      Rule.NO_CHANGE,
+      Rule.MOVEMENT,
+      Rule.ATTACK,
+      Rule.KING_INVULNERABILITY,
+      Rule.NO_CHECK);
+
   /**
    * A knight piece.
    *
@@ -13,25 +22,25 @@ public class Knight extends Piece {
    */
   public Knight(int row, int col, boolean isTop) {
     super(row, col, isTop);
+  }
 
-    rules.remove(Rule.NO_OVERLAP);
-
+  private Knight(Knight other) {
+    super(other);
   }
 
   @Override
-  void calculatePossiblePositions() {
-
-    new Square(row() + 2, col() + 1, possiblePositions);
-    new Square(row() + 2, col() - 1, possiblePositions);
-    new Square(row() - 2, col() + 1, possiblePositions);
-    new Square(row() - 2, col() - 1, possiblePositions);
+  RuleChain rules() {
+    return RULES;
+  }
 
-    new Square(row() + 1, col() + 2, possiblePositions);
-    new Square(row() - 1, col() + 2, possiblePositions);
-    new Square(row() + 1, col() - 2, possiblePositions);
-    new Square(row() - 1, col() - 2, possiblePositions);
+  @Override
+  public long getPositionMask() {
+    return Bitboards.knightAttacks(square());
+  }
 
-    possibleAttacks.addAll(possiblePositions);
+  @Override
+  public Knight getDeepCopy() {
+    return new Knight(this);
   }
 
   @Override
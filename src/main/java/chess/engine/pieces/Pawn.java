@@ -1,9 +1,21 @@
 package chess.engine.pieces;
 
+import chess.engine.Bitboards;
 import chess.engine.rules.Rule;
+import chess.engine.rules.RuleChain;
 
 public class Pawn extends Piece {
 
+  private static final RuleChain RULES = RuleChain.of(
+      Rule.EN_PASSANT,
+      Rule.PAWN_PROMOTION,
+      Rule.NO_CHANGE,
+      Rule.MOVEMENT,
+      Rule.ATTACK,
+      Rule.NO_OVERLAP,
+      Rule.KING_INVULNERABILITY,
+      Rule.NO_CHECK);
+
   /**
    * A pawn piece.
    *
@@ -13,22 +25,30 @@ public class Pawn extends Piece {
    */
   public Pawn(int row, int col, boolean isTop) {
     super(row, col, isTop);
+  }
 
-    rules.add(Rule.EN_PASSANT);
-    rules.add(Rule.PAWN_PROMOTION);
+  private Pawn(Pawn other) {
+    super(other);
+  }
 
+  @Override
+  RuleChain rules() {
+    return RULES;
   }
 
   @Override
-  void calculatePossiblePositions() {
-    new Square(row() + (isTop() ? 1 : -1), col(), possiblePositions);
+  public long getPositionMask() {
+    return Bitboards.pawnPushes(square(), isTop(), hasMoved());
+  }
 
-    if (!hasMoved()) {
-      new Square(row() + (isTop() ? 2 : -2), col(), possiblePositions);
-    }
+  @Override
+  public long getAttackMask() {
+    return Bitboards.pawnAttacks(square(), isTop());
+  }
 
-    new Square(row() + (isTop() ? 1 : -1), col() + 1, possibleAttacks);
-    new Square(row() + (isTop() ? 1 : -1), col() - 1, possibleAttacks);
+  @Override
+  public Pawn getDeepCopy() {
+    return new Pawn(this);
   }
 
   @Override
@@ -1,19 +1,25 @@
 package chess.engine.pieces;
 
 import chess.engine.Action;
+import chess.engine.Bitboards;
 import chess.engine.Board;
 import chess.engine.rules.Rule;
-import java.lang.reflect.InvocationTargetException;
-import java.util.ArrayList;
-import java.util.HashSet;
-import java.util.List;
-import java.util.Set;
+import chess.engine.rules.RuleChain;
 
 public abstract class Piece {
 
-  final Set<Square> possiblePositions = new HashSet<>();
-  final Set<Square> possibleAttacks = new HashSet<>();
-  final List<Rule> rules = new ArrayList<>();
+  /**
+   * The rules of most piece types. The rules are ordered from cheapest to most expensive, so
+   * illegal actions are usually rejected before the king safety check runs.
+   */
+  static final RuleChain STANDARD_RULES = RuleChain.of(
+      Rule.NO_CHANGE,
+      Rule.MOVEMENT,
+      Rule.ATTACK,
+      Rule.NO_OVERLAP,
+      Rule.KING_INVULNERABILITY,
+      Rule.NO_CHECK);
+
   private State state;
   private Square position;
   private boolean isTop;
@@ -28,31 +34,69 @@ public abstract class Piece {
    */
   Piece(int row, int col, boolean isTop) {
     this.isTop = isTop;
-    position = new Square(row, col);
+    position = Square.of(row, col);
     state = State.Alive;
+  }
+
+  /**
+   * Copies the square, team and state of another piece.
+   *
+   * @param other The piece to copy.
+   */
+  Piece(Piece other) {
+    isTop = other.isTop;
+    position = other.position;
+    state = other.state;
+    hasMoved = other.hasMoved;
+  }
 
-    rules.add(Rule.MOVEMENT);
-    rules.add(Rule.NO_OVERLAP);
-    rules.add(Rule.ATTACK);
-    rules.add(Rule.NO_CHANGE);
-    rules.add(Rule.NO_CHECK);
-    rules.add(Rule.KING_INVULNERABILITY);
+  public SquareSet getPossiblePositions() {
+    return new SquareSet(getPositionMask());
+  }
 
-    redoPositions();
+  public SquareSet getPossibleAttackPositions() {
+    return new SquareSet(getAttackMask());
   }
 
-  private void redoPositions() {
-    possiblePositions.clear();
-    possibleAttacks.clear();
-    calculatePossiblePositions();
+  /**
+   * Returns the squares the piece could move to from its current square if no other pieces were
+   * in the way, read from precomputed tables.
+   *
+   * @return A square set with bit {@code row * 8 + col} set for every square, see Bitboards.
+   */
+  public abstract long getPositionMask();
+
+  /**
+   * Returns the squares the piece could attack from its current square if no other pieces were in
+   * the way. The same as the positions for all pieces but pawns.
+   *
+   * @return A square set with bit {@code row * 8 + col} set for every square, see Bitboards.
+   */
+  public long getAttackMask() {
+    return getPositionMask();
   }
 
-  public Set<Square> getPossiblePositions() {
-    return new HashSet<>(possiblePositions);
+  /**
+   * Returns the squares the piece could move to from its current square without passing any of
+   * the occupied squares. A blocking square itself is included, as it might be captured.
+   *
+   * @param occupied The occupied squares of the board.
+   * @return A square set with bit {@code row * 8 + col} set for every square, see Bitboards.
+   */
+  public long getPositionMask(long occupied) {
+    long positions = getPositionMask();
+    long reachable = 0;
+    for (long bits = positions; bits != 0; bits &= bits - 1) {
+      int target = Long.numberOfTrailingZeros(bits);
+      if ((Bitboards.between(square(), target) & positions & occupied) == 0) {
+        reachable |= Bitboards.bit(target);
+      }
+    }
+    return reachable;
   }
 
-  public Set<Square> getPossibleAttackPositions() {
-    return new HashSet<>(possibleAttacks);
+  int square() {
+    return Bitboards.square(row(), col());
   }
 
   public State getState() {
@@ -73,7 +117,7 @@ public abstract class Piece {
   }
 
   /**
-   * Moves the piece to the provided square. Also recalculates possible next moves.
+   * Moves the piece to the provided square.
    *
    * @param row The new row.
    * @param col The new column.
@@ -82,11 +126,21 @@ public abstract class Piece {
     if (!isAt(row, col)) {
       position = Square.of(row, col);
       hasMoved = true;
-
-      redoPositions();
     }
   }
 
+  /**
+   * Puts the piece back on a square it was moved from.
+   *
+   * @param row The previous row.
+   * @param col The previous column.
+   * @param hasMoved Whether or not the piece had moved before.
+   */
+  public void restore(int row, int col, boolean hasMoved) {
+    position = Square.of(row, col);
+    this.hasMoved = hasMoved;
+  }
+
   /**
    * Returns whether or not the piece is currently situated the the provided square.
    *
@@ -98,8 +152,6 @@ public abstract class Piece {
     return position.isAt(row, col);
   }
 
-  abstract void calculatePossiblePositions();
-
   public abstract char toChar();
 
   public Square pos() {
@@ -145,43 +197,25 @@ public abstract class Piece {
    * @return True if a special action triggered or all conditions for a normal move were passed.
    */
   public final boolean isAllowed(Board board, Action action) {
-    if (rules.stream().anyMatch(m -> m.isSuperior()
-        && m.isActionAllowed(board, action).equals(Rule.Result.Passed))) {
-      return true;
-    }
+    return rules().isAllowed(board, action);
+  }
 
-    return rules
-        .stream()
-        .filter(m -> !m.isSuperior())
-        .noneMatch(m -> m.isActionAllowed(board, action).equals(Rule.Result.NotPassed));
+  /**
+   * Returns the rules of the piece type, shared by all pieces of that type.
+   *
+   * @return The compiled rules.
+   */
+  RuleChain rules() {
+    return STANDARD_RULES;
   }
 
   /**
    * Creates a deep copy of the piece. Changes made to the deep copy will not interfere with the
    * original.
    *
-   * @return A piece object if a deep copy was successfully created, otherwise null.
-   */
-  public Piece getDeepCopy() {
-    Piece copy;
-
-    try {
-      copy = this.getClass()
-          .getConstructor(int.class, int.class, boolean.class)
-          .newInstance(position.row(), position.col(), isTop);
-      copy.state = state;
-      copy.hasMoved = hasMoved;
-      copy.redoPositions();
-      return copy;
-    } catch (InstantiationException
-        | IllegalAccessException
-        | InvocationTargetException
-        | NoSuchMethodException e) {
-      e.printStackTrace();
-      System.exit(1);
-      return null;
-    }
-  }
+   * @return A piece of the same type, square, team and state.
+   */
+  public abstract Piece getDeepCopy();
 
   /**
    * Converts the piece into a readable String.
@@ -0,0 +1,19 @@
+package chess.engine.pieces;
+
+/**
+ * Creates a piece of one type, usually a reference to the constructor of that type.
+ */
+@FunctionalInterface
+public interface PieceFactory {
+
+  /**
+   * Creates a new piece that has not moved yet.
+   *
+   * @param row The row of the piece.
+   * @param col The column of the piece.
+   * @param isTop Whether the piece belongs to the top or bottom team.
+   * @return A new piece.
+   */
+  Piece create(int row, int col, boolean isTop);
+
+}
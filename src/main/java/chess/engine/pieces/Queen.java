@@ -1,6 +1,6 @@
 package chess.engine.pieces;
 
-import chess.engine.Board;
+import chess.engine.Bitboards;
 
 public class Queen extends Piece {
 
@@ -9,24 +9,23 @@ public class Queen extends Piece {
 
   }
 
-  @Override
-  void calculatePossiblePositions() {
-
-    for (int i = 0; i < Board.BOARD_LENGTH; i++) {
-      possiblePositions.add(new Square(i, col()));
-      possiblePositions.add(new Square(row(), i));
+  private Queen(Queen other) {
+    super(other);
+  }
 
-      if (i > 0) {
-        new Square(row() - i, col() + i, possiblePositions);
-        new Square(row() - i, col() - i, possiblePositions);
-        new Square(row() + i, col() + i, possiblePositions);
-        new Square(row() + i, col() - i, possiblePositions);
-      }
+  @Override
+  public long getPositionMask() {
+    return Bitboards.queenAttacks(square(), 0);
+  }
 
-    }
+  @Override
+  public long getPositionMask(long occupied) {
+    return Bitboards.queenAttacks(square(), occupied);
+  }
 
-    possiblePositions.removeIf(m -> m.isAt(row(), col()));
-    possibleAttacks.addAll(possiblePositions);
+  @Override
+  public Queen getDeepCopy() {
+    return new Queen(this);
   }
 
   @Override
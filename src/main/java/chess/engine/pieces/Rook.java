@@ -1,6 +1,6 @@
 package chess.engine.pieces;
 
-import chess.engine.Board;
+import chess.engine.Bitboards;
 
 public class Rook extends Piece {
 
@@ -8,15 +8,23 @@ public class Rook extends Piece {
     super(row, col, isTop);
   }
 
+  private Rook(Rook other) {
+    super(other);
+  }
+
+  @Override
+  public long getPositionMask() {
+    return Bitboards.rookAttacks(square(), 0);
+  }
+
+  @Override
+  public long getPositionMask(long occupied) {
+    return Bitboards.rookAttacks(square(), occupied);
+  }
+
   @Override
-  void calculatePossiblePositions() {
-    for (int i = 0; i < Board.BOARD_LENGTH; i++) {
-      possiblePositions.add(new Square(i, col()));
-      possiblePositions.add(new Square(row(), i));
-    }
-
-    possiblePositions.removeIf(m -> m.isAt(row(), col()));
-    possibleAttacks.addAll(possiblePositions);
+  public Rook getDeepCopy() {
+    return new Rook(this);
   }
 
   @Override
@@ -1,12 +1,19 @@
 package chess.engine.pieces;
 
 import chess.engine.Board;
-
 import java.util.Set;
 
 public final class Square {
 
   private static final char[] chars = {'A', 'B', 'C', 'D', 'E', 'F', 'G', 'H'};
+  private static final Square[] SQUARES = new Square[Board.BOARD_LENGTH * Board.BOARD_LENGTH];
+
+  static {
+    for (int i = 0; i < SQUARES.length; i++) {
+      SQUARES[i] = new Square(i / Board.BOARD_LENGTH, i % Board.BOARD_LENGTH);
+    }
+  }
+
   private final int row;
   private final int col;
 
@@ -69,15 +76,41 @@ public final class Square {
     return other.row == row && other.col == col;
   }
 
+  @Override
+  public int hashCode() {
+    return row * Board.BOARD_LENGTH + col;
+  }
+
   @Override
   public String toString() {
     return "" + chars[col] + (8 - row);
   }
 
+  /**
+   * Returns the square at the provided row and column. Squares on the board are shared instances,
+   * so no object is created for them.
+   *
+   * @param row The row number.
+   * @param col The column number.
+   * @return A Square object.
+   */
   public static Square of(int row, int col) {
+    if (row >= 0 && row < Board.BOARD_LENGTH && col >= 0 && col < Board.BOARD_LENGTH) {
+      return SQUARES[row * Board.BOARD_LENGTH + col];
+    }
     return new Square(row, col);
   }
 
+  /**
+   * Returns the square with the provided index.
+   *
+   * @param index The index {@code row * 8 + col} of the square, see Bitboards.
+   * @return A shared Square object.
+   */
+  public static Square at(int index) {
+    return SQUARES[index];
+  }
+
   /**
    * Creates a Square instance from the notation of a square.
    *
@@ -92,7 +125,7 @@ public final class Square {
     notation = notation.toUpperCase();
     int row = chars.length - Integer.parseInt("" + notation.charAt(1));
     int col = notation.charAt(0) - 'A';
-    return new Square(row, col);
+    return of(row, col);
   }
 
 }
@@ -0,0 +1,84 @@
+package chess.engine.pieces;
+
+import chess.engine.Bitboards;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * An immutable set of squares backed by a single long, with bit {@code row * 8 + col} set for every
+ * square in the set. Membership tests are bit tests and iterating returns the shared Square
+ * instances, so neither allocates any squares.
+ */
+public final class SquareSet extends AbstractSet<Square> {
+
+  private final long bits;
+
+  public SquareSet(long bits) {
+    this.bits = bits;
+  }
+
+  /**
+   * Returns the squares of the set.
+   *
+   * @return A square set, see Bitboards.
+   */
+  public long bits() {
+    return bits;
+  }
+
+  /**
+   * Returns whether or not the provided square is part of the set.
+   *
+   * @param row The row number.
+   * @param col The column number.
+   * @return True or false.
+   */
+  public boolean contains(int row, int col) {
+    return Bitboards.isInside(row, col) && (bits & Bitboards.bit(Bitboards.square(row, col))) != 0;
+  }
+
+  @Override
+  public boolean contains(Object o) {
+    if (!(o instanceof Square)) {
+      return false;
+    }
+
+    Square square = (Square) o;
+    return contains(square.row(), square.col());
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return bits == 0;
+  }
+
+  @Override
+  public int size() {
+    return Long.bitCount(bits);
+  }
+
+  @Override
+  public Iterator<Square> iterator() {
+    return new Iterator<Square>() {
+      private long remaining = bits;
+
+      @Override
+      public boolean hasNext() {
+        return remaining != 0;
+      }
+
+      @Override
+      public Square next() {
+        if (remaining == 0) {
+          throw new NoSuchElementException();
+        }
+
+        Square square = Square.at(Long.numberOfTrailingZeros(remaining));
+        remaining &= remaining - 1;
+        return square;
+      }
+    };
+  }
+
+}
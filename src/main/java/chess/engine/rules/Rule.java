@@ -21,8 +21,8 @@ public interface Rule {
 
   /**
    * Returns whether or not an action is allowed according to the specific rule. Superior rules that
-   * are passed may also add further acts to the action, which will be executed along with the
-   * original ones.
+   * are passed may also add flags to the move of the action, such as Move.CASTLING, which decide
+   * what executing the action does to the board.
    *
    * @param board The current board.
    * @param action The action to be executed.
@@ -32,7 +32,7 @@ public interface Rule {
 
   /**
    * A superior rule is a rule that makes all other rules redundant when passed. They are usually
-   * used when the rule itself adds further acts to the action.
+   * used when the rule itself adds flags to the action.
    *
    * @return True or false.
    */
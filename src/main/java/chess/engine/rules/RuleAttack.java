@@ -1,6 +1,7 @@
 package chess.engine.rules;
 
 import chess.engine.Action;
+import chess.engine.Bitboards;
 import chess.engine.Board;
 import chess.engine.pieces.Piece;
 
@@ -14,10 +15,12 @@ public class RuleAttack implements Rule {
 
     Piece piece = action.getPiece();
 
-    if (piece
-        .getPossibleAttackPositions()
-        .stream()
-        .noneMatch(m -> m.isAt(action.row(), action.col()))) {
+    if (!Bitboards.isInside(action.row(), action.col())) {
+      return Result.NotPassed;
+    }
+
+    long square = Bitboards.bit(Bitboards.square(action.row(), action.col()));
+    if ((piece.getAttackMask() & square) == 0) {
       return Result.NotPassed;
     }
 
@@ -0,0 +1,91 @@
+package chess.engine.rules;
+
+import chess.engine.Action;
+import chess.engine.Board;
+import chess.engine.rules.Rule.Result;
+
+/**
+ * The rules of a piece type compiled into a fixed order: superior rules first, followed by the
+ * other rules in the order they were given. Chains are built once per piece type and shared by all
+ * pieces of that type.
+ */
+public final class RuleChain {
+
+  private final Rule[] rules;
+  private final RuleMetrics.Counter[] counters;
+  private final int superiorCount;
+
+  private RuleChain(Rule[] rules) {
+    this.rules = rules;
+    counters = new RuleMetrics.Counter[rules.length];
+    int superior = 0;
+    for (int i = 0; i < rules.length; i++) {
+      counters[i] = RuleMetrics.counterOf(rules[i]);
+      if (rules[i].isSuperior()) {
+        superior++;
+      }
+    }
+    superiorCount = superior;
+  }
+
+  /**
+   * Compiles a rule chain. Superior rules are moved to the front, otherwise the order is kept, so
+   * the cheapest rules should be given first.
+   *
+   * @param rules The rules of the piece type.
+   * @return A rule chain.
+   */
+  public static RuleChain of(Rule... rules) {
+    Rule[] ordered = new Rule[rules.length];
+    int index = 0;
+    for (Rule rule : rules) {
+      if (rule.isSuperior()) {
+        ordered[index++] = rule;
+      }
+    }
+    for (Rule rule : rules) {
+      if (!rule.isSuperior()) {
+        ordered[index++] = rule;
+      }
+    }
+    return new RuleChain(ordered);
+  }
+
+  /**
+   * Returns whether or not an action is allowed to be executed. Stops at the first superior rule
+   * that is passed or the first other rule that is not.
+   *
+   * @param board The game board.
+   * @param action The action to be executed.
+   * @return True if a superior rule passed or none of the other rules failed.
+   */
+  public boolean isAllowed(Board board, Action action) {
+    boolean measured = RuleMetrics.isEnabled();
+
+    for (int i = 0; i < superiorCount; i++) {
+      if (evaluate(i, board, action, measured) == Result.Passed) {
+        return true;
+      }
+    }
+
+    for (int i = superiorCount; i < rules.length; i++) {
+      if (evaluate(i, board, action, measured) == Result.NotPassed) {
+        return false;
+      }
+    }
+
+    return true;
+  }
+
+  private Result evaluate(int index, Board board, Action action, boolean measured) {
+    if (!measured) {
+      return rules[index].isActionAllowed(board, action);
+    }
+
+    long start = System.nanoTime();
+    Result result = rules[index].isActionAllowed(board, action);
+    counters[index].record(result, System.nanoTime() - start);
+    return result;
+  }
+
+}
@@ -1,12 +1,12 @@
 package chess.engine.rules;
 
 import chess.engine.Action;
+import chess.engine.Bitboards;
 import chess.engine.Board;
+import chess.engine.Move;
 import chess.engine.pieces.Pawn;
 import chess.engine.pieces.Piece;
 
-import java.util.List;
-
 public class RuleEnPassant implements Rule {
 
   @Override
@@ -15,26 +15,10 @@ public class RuleEnPassant implements Rule {
       return Result.Invalid;
     }
 
-    List<Action> history = board.getHistory();
-    if (history.size() == 0) {
-      return Result.NotPassed;
-    }
-
-    Action lastAction = history.get(history.size() - 1);
-    if (!(lastAction.getPiece() instanceof Pawn)) {
-      return Result.NotPassed;
-    }
-
-    if (lastAction.getType() != Action.Type.Move) {
-      return Result.NotPassed;
-    }
-
-    Piece last = lastAction.getPiece();
-    if (last.row() != lastAction.row() + (last.isTop() ? -2 : 2)) {
-      return Result.NotPassed;
-    }
-
-    if (last.col() != action.col()) {
+    int enPassantSquare = board.getEnPassantSquare();
+    if (enPassantSquare < 0
+        || !Bitboards.isInside(action.row(), action.col())
+        || Bitboards.square(action.row(), action.col()) != enPassantSquare) {
       return Result.NotPassed;
     }
 
@@ -57,8 +41,11 @@ public class RuleEnPassant implements Rule {
       if (piece.isTop() && row == piece.row() + 1
           || !piece.isTop() && row == piece.row() - 1) {
 
-        action.insertAct(true, () -> board.forceKill(piece, piece.row(), col));
-        action.insertAct(false, () -> action.setNote("En Passant"));
+        if (board.leavesKingInCheck(piece.row(), piece.col(), row, col)) {
+          return Result.NotPassed;
+        }
+
+        action.addFlags(Move.EN_PASSANT);
         return Result.Passed;
       }
 
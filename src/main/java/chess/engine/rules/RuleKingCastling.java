@@ -4,6 +4,7 @@ import chess.engine.Action;
 import chess.engine.Action.Type;
 import chess.engine.Board;
 import chess.engine.BoardInterface.GameType;
+import chess.engine.Move;
 import chess.engine.pieces.King;
 import chess.engine.pieces.Piece;
 import chess.engine.pieces.Rook;
@@ -18,7 +19,7 @@ public class RuleKingCastling implements Rule {
 
     Piece piece = action.getPiece();
     boolean queenSide = action.col() < piece.col();
-    Piece target = board.getRook(piece.isTop(), queenSide);
+    Piece target = board.getCastlingRook(piece, queenSide);
 
     if (!(piece instanceof King) || !(target instanceof Rook)) {
       return Result.Invalid;
@@ -30,20 +31,7 @@ public class RuleKingCastling implements Rule {
     }
 
     final int targetCol = action.col();
-    if (board.getGameType() == GameType.Fischer) {
-      int fixedCol;
-      if (queenSide) {
-        fixedCol = 2;
-      } else {
-        fixedCol = 6;
-      }
-
-      action.clearActs();
-      action.insertAct(true, () ->
-          board.forceMove(piece.row(), piece.col(), piece.row(), fixedCol)
-      );
-
-    } else if (Math.abs(targetCol - piece.col()) != 2) {
+    if (board.getGameType() != GameType.Fischer && Math.abs(targetCol - piece.col()) != 2) {
       action.setType(Type.Move);
       return Result.NotPassed;
     }
@@ -62,10 +50,7 @@ public class RuleKingCastling implements Rule {
       }
     }
 
-    action.insertAct(true, () ->
-        board.forceMove(target.row(), target.col(), action.row(), targetCol - dir)
-    );
-    action.insertAct(false, () -> action.setNote("Castling"));
+    action.addFlags(Move.CASTLING);
 
     return Result.Passed;
   }
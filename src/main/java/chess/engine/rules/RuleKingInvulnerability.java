@@ -15,7 +15,7 @@ public class RuleKingInvulnerability implements Rule {
 
     Piece target = board.getAt(action.row(), action.col());
     if (target instanceof King && target.isTop() != action.getPiece().isTop()) {
-      action.clearActs();
+      action.cancel();
     }
 
     return Result.Passed;
@@ -0,0 +1,139 @@
+package chess.engine.rules;
+
+import chess.engine.rules.Rule.Result;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts how often every rule is evaluated, what it returns and how long it takes, summed over all
+ * piece types. Enabled unless the system property {@code chess.ruleMetrics} is set to false. The
+ * counters may be read and reset from any thread.
+ */
+public final class RuleMetrics {
+
+  private static final Map<Rule, Counter> counters = new ConcurrentHashMap<>();
+  private static volatile boolean enabled =
+      !"false".equalsIgnoreCase(System.getProperty("chess.ruleMetrics"));
+
+  private RuleMetrics() {
+  }
+
+  public static boolean isEnabled() {
+    return enabled;
+  }
+
+  public static void setEnabled(boolean enabled) {
+    RuleMetrics.enabled = enabled;
+  }
+
+  /**
+   * Returns the counters of all rules used by any piece type, in no particular order.
+   *
+   * @return An unmodifiable list of counters.
+   */
+  public static List<Counter> getCounters() {
+    return Collections.unmodifiableList(new ArrayList<>(counters.values()));
+  }
+
+  /**
+   * Returns the counter of a rule.
+   *
+   * @param rule The rule.
+   * @return The counter of the rule, or null if no piece type uses it.
+   */
+  public static Counter getCounter(Rule rule) {
+    return counters.get(rule);
+  }
+
+  /**
+   * Sets all counters back to zero.
+   */
+  public static void reset() {
+    counters.values().forEach(Counter::reset);
+  }
+
+  static Counter counterOf(Rule rule) {
+    return counters.computeIfAbsent(rule, Counter::new);
+  }
+
+  public static final class Counter {
+
+    private final String name;
+    private final LongAdder passed = new LongAdder();
+    private final LongAdder notPassed = new LongAdder();
+    private final LongAdder invalid = new LongAdder();
+    private final LongAdder nanos = new LongAdder();
+
+    private Counter(Rule rule) {
+      name = rule.getClass().getSimpleName();
+    }
+
+    void record(Result result, long elapsed) {
+      switch (result) {
+        case Passed:
+          passed.increment();
+          break;
+        case NotPassed:
+          notPassed.increment();
+          break;
+        default:
+          invalid.increment();
+          break;
+      }
+      nanos.add(elapsed);
+    }
+
+    void reset() {
+      passed.reset();
+      notPassed.reset();
+      invalid.reset();
+      nanos.reset();
+    }
+
+    public String getName() {
+      return name;
+    }
+
+    public long getInvocations() {
+      return getPassed() + getNotPassed() + getInvalid();
+    }
+
+    public long getPassed() {
+      return passed.sum();
+    }
+
+    public long getNotPassed() {
+      return notPassed.sum();
+    }
+
+    public long getInvalid() {
+      return invalid.sum();
+    }
+
+    public long getNanos() {
+      return nanos.sum();
+    }
+
+    /**
+     * Converts the counter into a readable String.
+     *
+     * @return A string in the format "Name invocations passed/notPassed/invalid nanoseconds".
+     */
+    @Override
+    public String toString() {
+      return String.format("%s %d %d/%d/%d %d ns",
+          name,
+          getInvocations(),
+          getPassed(),
+          getNotPassed(),
+          getInvalid(),
+          getNanos());
+    }
+
+  }
+
+}
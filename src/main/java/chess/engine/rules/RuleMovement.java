@@ -1,6 +1,7 @@
 package chess.engine.rules;
 
 import chess.engine.Action;
+import chess.engine.Bitboards;
 import chess.engine.Board;
 
 public class RuleMovement implements Rule {
@@ -11,12 +12,13 @@ public class RuleMovement implements Rule {
       return Result.Invalid;
     }
 
-    if (action
-        .getPiece()
-        .getPossiblePositions()
-        .stream()
-        .anyMatch(m -> m.isAt(action.row(), action.col())
-            && board.getAt(action.row(), action.col()) == null)) {
+    if (!Bitboards.isInside(action.row(), action.col())) {
+      return Result.NotPassed;
+    }
+
+    long target = Bitboards.bit(Bitboards.square(action.row(), action.col()));
+    if ((action.getPiece().getPositionMask() & target) != 0
+        && (board.getOccupied() & target) == 0) {
       return Result.Passed;
     }
 
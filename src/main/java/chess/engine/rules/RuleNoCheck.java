@@ -1,6 +1,7 @@
 package chess.engine.rules;
 
 import chess.engine.Action;
+import chess.engine.Bitboards;
 import chess.engine.Board;
 import chess.engine.pieces.Piece;
 
@@ -9,11 +10,11 @@ public class RuleNoCheck implements Rule {
   @Override
   public Result isActionAllowed(Board board, Action action) {
     Piece piece = action.getPiece();
+    if (!Bitboards.isInside(action.row(), action.col())) {
+      return Result.NotPassed;
+    }
 
-    Board shallow = board.getDeepCopy();
-    shallow.forceMove(piece.row(), piece.col(), action.row(), action.col());
-
-    if (shallow.isKingInCheck(piece.isTop())) {
+    if (board.leavesKingInCheck(piece.row(), piece.col(), action.row(), action.col())) {
       return Result.NotPassed;
     }
 
@@ -2,71 +2,44 @@ package chess.engine.rules;
 
 import chess.engine.Action;
 import chess.engine.Action.Type;
+import chess.engine.Bitboards;
 import chess.engine.Board;
 import chess.engine.pieces.Piece;
-import chess.engine.pieces.Rook;
-import chess.engine.pieces.Square;
-import java.util.Set;
 
 public final class RuleNoOverlap implements Rule {
 
   @Override
   public Result isActionAllowed(Board board, Action action) {
     Piece piece = action.getPiece();
-    int row = action.row();
-    int col = action.col();
-
-    int[] rowRange = new int[2];
-    int[] colRange = new int[2];
+    int from = Bitboards.square(piece.row(), piece.col());
+    int to = Bitboards.square(action.row(), action.col());
+    long target = Bitboards.bit(to);
+
+    if (action.getType() != Type.Castling) {
+      if ((piece.getPositionMask() & target) == 0
+          || (piece.getPositionMask(board.getOccupied()) & target) != 0) {
+        return Result.Passed;
+      }
 
-    if (row > piece.row()) {
-      rowRange[0] = piece.row() + 1;
-      rowRange[1] = row;
-    } else if (row < piece.row()) {
-      rowRange[0] = row;
-      rowRange[1] = piece.row() - 1;
-    } else {
-      rowRange[0] = row;
-      rowRange[1] = row;
+      return Result.NotPassed;
     }
 
-    if (col > piece.col()) {
-      colRange[0] = piece.col() + 1;
-      colRange[1] = col;
-    } else if (col < piece.col()) {
-      colRange[0] = col;
-      colRange[1] = piece.col() - 1;
-    } else {
-      colRange[0] = col;
-      colRange[1] = col;
+    // The squares the king and its rook pass or land on must be empty but for the two of them.
+    Piece rook = board.getCastlingRook(piece, action.col() < piece.col());
+    if (rook == null) {
+      return Result.NotPassed;
     }
 
-    Set<Square> positions = piece.getPossiblePositions();
-    for (int r = rowRange[0]; r <= rowRange[1]; r++) {
-      for (int c = colRange[0]; c <= colRange[1]; c++) {
-        if (r == row && c == col) {
-          continue;
-        }
-
-        final int fR = r;
-        final int fC = c;
-        if (positions.stream().anyMatch(m -> m.isAt(fR, fC))) {
-          Piece other = board.getAt(r, c);
-
-          if (action.getType() == Type.Castling && other instanceof Rook) {
-            continue;
-          }
-
-          if (other != null) {
-            return Result.NotPassed;
-          }
-        }
+    int rookFrom = Bitboards.square(rook.row(), rook.col());
+    int rookTo = to - Integer.signum(rook.col() - piece.col());
+    long path = span(from, to) | span(rookFrom, rookTo);
+    long castlers = Bitboards.bit(from) | Bitboards.bit(rookFrom);
 
-      }
-
-    }
+    return (path & board.getOccupied() & ~castlers) == 0 ? Result.Passed : Result.NotPassed;
+  }
 
-    return Result.Passed;
+  private static long span(int from, int to) {
+    return Bitboards.between(from, to) | Bitboards.bit(from) | Bitboards.bit(to);
   }
 
   @Override
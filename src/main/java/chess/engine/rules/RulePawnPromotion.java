@@ -19,9 +19,11 @@ public class RulePawnPromotion implements Rule {
         if (piece.isTop() && row == Board.BOARD_LENGTH - 1
             || !piece.isTop() && row == 0) {
 
-          action.insertAct(true, board::promoteAfterAction);
-          action.insertAct(true, () -> board.forceMove(piece.row(), piece.col(), row, col));
-          action.insertAct(false, () -> action.setNote("Pawn Promotion"));
+          if (board.leavesKingInCheck(piece.row(), piece.col(), row, col)) {
+            return Result.NotPassed;
+          }
+
+          action.setPromoting();
 
           return Result.Passed;
         }
@@ -38,9 +40,11 @@ public class RulePawnPromotion implements Rule {
         if (piece.isTop() && row == Board.BOARD_LENGTH - 1
             || !piece.isTop() && row == 0) {
 
-          action.insertAct(true, board::promoteAfterAction);
-          action.insertAct(true, () -> board.forceKill(piece, row, col));
-          action.insertAct(false, () -> action.setNote("Pawn Promotion"));
+          if (board.leavesKingInCheck(piece.row(), piece.col(), row, col)) {
+            return Result.NotPassed;
+          }
+
+          action.setPromoting();
 
           return Result.Passed;
         }
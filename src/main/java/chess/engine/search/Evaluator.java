@@ -0,0 +1,130 @@
+package chess.engine.search;
+
+import chess.engine.Board;
+
+/**
+ * A static evaluation of material and piece placement. Every piece is worth its material value
+ * plus a bonus from a table of its squares, written from the point of view of the bottom team with
+ * the top row first, so that the tables read like a board seen from the bottom. The top team reads
+ * the same tables upside down.
+ */
+final class Evaluator {
+
+  static final int PAWN = 100;
+  static final int KNIGHT = 320;
+  static final int BISHOP = 330;
+  static final int ROOK = 500;
+  static final int QUEEN = 900;
+
+  private static final String PIECES = "PNBRQK";
+  private static final int[] VALUES = {PAWN, KNIGHT, BISHOP, ROOK, QUEEN, 0};
+
+  private static final int[][] SQUARES = {
+      {
+          0, 0, 0, 0, 0, 0, 0, 0,
+          50, 50, 50, 50, 50, 50, 50, 50,
+          10, 10, 20, 30, 30, 20, 10, 10,
+          5, 5, 10, 25, 25, 10, 5, 5,
+          0, 0, 0, 20, 20, 0, 0, 0,
+          5, -5, -10, 0, 0, -10, -5, 5,
+          5, 10, 10, -20, -20, 10, 10, 5,
+          0, 0, 0, 0, 0, 0, 0, 0
+      }, {
+          -50, -40, -30, -30, -30, -30, -40, -50,
+          -40, -20, 0, 0, 0, 0, -20, -40,
+          -30, 0, 10, 15, 15, 10, 0, -30,
+          -30, 5, 15, 20, 20, 15, 5, -30,
+          -30, 0, 15, 20, 20, 15, 0, -30,
+          -30, 5, 10, 15, 15, 10, 5, -30,
+          -40, -20, 0, 5, 5, 0, -20, -40,
+          -50, -40, -30, -30, -30, -30, -40, -50
+      }, {
+          -20, -10, -10, -10, -10, -10, -10, -20,
+          -10, 0, 0, 0, 0, 0, 0, -10,
+          -10, 0, 5, 10, 10, 5, 0, -10,
+          -10, 5, 5, 10, 10, 5, 5, -10,
+          -10, 0, 10, 10, 10, 10, 0, -10,
+          -10, 10, 10, 10, 10, 10, 10, -10,
+          -10, 5, 0, 0, 0, 0, 5, -10,
+          -20, -10, -10, -10, -10, -10, -10, -20
+      }, {
+          0, 0, 0, 0, 0, 0, 0, 0,
+          5, 10, 10, 10, 10, 10, 10, 5,
+          -5, 0, 0, 0, 0, 0, 0, -5,
+          -5, 0, 0, 0, 0, 0, 0, -5,
+          -5, 0, 0, 0, 0, 0, 0, -5,
+          -5, 0, 0, 0, 0, 0, 0, -5,
+          -5, 0, 0, 0, 0, 0, 0, -5,
+          0, 0, 0, 5, 5, 0, 0, 0
+      }, {
+          -20, -10, -10, -5, -5, -10, -10, -20,
+          -10, 0, 0, 0, 0, 0, 0, -10,
+          -10, 0, 5, 5, 5, 5, 0, -10,
+          -5, 0, 5, 5, 5, 5, 0, -5,
+          0, 0, 5, 5, 5, 5, 0, -5,
+          -10, 5, 5, 5, 5, 5, 0, -10,
+          -10, 0, 5, 0, 0, 0, 0, -10,
+          -20, -10, -10, -5, -5, -10, -10, -20
+      }, {
+          -30, -40, -40, -50, -50, -40, -40, -30,
+          -30, -40, -40, -50, -50, -40, -40, -30,
+          -30, -40, -40, -50, -50, -40, -40, -30,
+          -30, -40, -40, -50, -50, -40, -40, -30,
+          -20, -30, -30, -40, -40, -30, -30, -20,
+          -10, -20, -20, -20, -20, -20, -20, -10,
+          20, 20, 0, 0, 0, 0, 20, 20,
+          20, 30, 10, 0, 0, 10, 30, 20
+      }
+  };
+
+  private Evaluator() {
+  }
+
+  /**
+   * Evaluates the position for the team whose turn it is.
+   *
+   * @param board The board to evaluate.
+   * @return The score in centipawns, positive if the team to move is ahead.
+   */
+  static int evaluate(Board board) {
+    int score = 0;
+    for (int type = 0; type < PIECES.length(); type++) {
+      char piece = PIECES.charAt(type);
+      score += sum(board.getPieceBoard(piece), type, 0);
+      score -= sum(board.getPieceBoard(Character.toLowerCase(piece)), type, 56);
+    }
+    return board.isTopTurn() ? -score : score;
+  }
+
+  /**
+   * Returns the material value of the piece on a square.
+   *
+   * @param board The board to look at.
+   * @param square The square as {@code row * 8 + col}.
+   * @return The value in centipawns, or zero if the square is empty or holds a king.
+   */
+  static int valueAt(Board board, int square) {
+    long bit = 1L << square;
+    if ((board.getOccupied() & bit) == 0) {
+      return 0;
+    }
+
+    for (int type = 0; type < PIECES.length(); type++) {
+      char piece = PIECES.charAt(type);
+      if (((board.getPieceBoard(piece) | board.getPieceBoard(Character.toLowerCase(piece)))
+          & bit) != 0) {
+        return VALUES[type];
+      }
+    }
+    return 0;
+  }
+
+  private static int sum(long pieces, int type, int flip) {
+    int score = 0;
+    for (long bits = pieces; bits != 0; bits &= bits - 1) {
+      score += VALUES[type] + SQUARES[type][Long.numberOfTrailingZeros(bits) ^ flip];
+    }
+    return score;
+  }
+
+}
@@ -0,0 +1,365 @@
+package chess.engine.search;
+
+import chess.engine.Board;
+import chess.engine.Move;
+import chess.engine.MoveList;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * Finds the best move of a position by iterative deepening with a principal variation search, an
+ * alpha-beta search which searches the first move with a full window and the rest with a null
+ * window, re-searching them only if they turn out better. Captures are followed to the end in a
+ * quiescence search. Searched positions are kept in a transposition table, which may be shared
+ * with searches on other threads. Moves are tried in the order of the best move found for the
+ * position before, captures by the value of the captured piece, killer moves and the rest.
+ *
+ * <p>Every position is reached by makeMove and left by unmakeMove on the board being searched, so
+ * the board must not be used by anyone else during the search. It is left as it was. The search
+ * may be stopped from another thread with stop().
+ */
+public final class Search {
+
+  /** The score of a mate at the root. Mates further away score one less per ply. */
+  public static final int MATE = 32_000;
+  static final int MATE_BOUND = MATE - 1_000;
+
+  private static final int INFINITY = MATE + 1;
+  private static final int MAX_PLY = 128;
+  private static final int CHECK_INTERVAL = 1 << 10;
+  private static final int DEFAULT_MEGABYTES = 16;
+
+  private final Board board;
+  private final TranspositionTable table;
+  private int maxDepth = 64;
+  private long maxNodes = Long.MAX_VALUE;
+  private long maxMillis = Long.MAX_VALUE;
+  private Consumer<SearchResult> listener;
+
+  private final MoveList[] moveLists = new MoveList[MAX_PLY + 1];
+  private final int[][] orders = new int[MAX_PLY + 1][MoveList.CAPACITY];
+  private final int[][] pv = new int[MAX_PLY + 1][MAX_PLY + 1];
+  private final int[] pvLength = new int[MAX_PLY + 1];
+  private final int[][] killers = new int[MAX_PLY + 1][2];
+  private int[] previousPv = new int[0];
+
+  private long nodes;
+  private long start;
+  private long deadline;
+  private volatile boolean stopped;
+
+  /**
+   * Creates a search of the position on the provided board, with a transposition table of its own.
+   *
+   * @param board The board to search. It is searched in place, see the class description.
+   */
+  public Search(Board board) {
+    this(board, new TranspositionTable(DEFAULT_MEGABYTES));
+  }
+
+  /**
+   * Creates a search of the position on the provided board.
+   *
+   * @param board The board to search. It is searched in place, see the class description.
+   * @param table The transposition table, which may be shared with other searches.
+   */
+  public Search(Board board, TranspositionTable table) {
+    this.board = board;
+    this.table = table;
+    for (int i = 0; i < moveLists.length; i++) {
+      moveLists[i] = new MoveList();
+    }
+  }
+
+  /**
+   * Limits the depth of the search.
+   *
+   * @param maxDepth The maximum depth in plies, at least one.
+   */
+  public void setMaxDepth(int maxDepth) {
+    this.maxDepth = Math.max(1, Math.min(maxDepth, MAX_PLY));
+  }
+
+  /**
+   * Limits the number of positions visited. The first iteration is always completed.
+   *
+   * @param maxNodes The maximum number of nodes.
+   */
+  public void setMaxNodes(long maxNodes) {
+    this.maxNodes = maxNodes;
+  }
+
+  /**
+   * Limits the time of the search. The first iteration is always completed.
+   *
+   * @param maxMillis The maximum time in milliseconds.
+   */
+  public void setMaxTime(long maxMillis) {
+    this.maxMillis = maxMillis;
+  }
+
+  /**
+   * Sets a listener to be notified of the result of every completed iteration, i.e to show the
+   * progress of the search.
+   *
+   * @param listener The listener, or null for none.
+   */
+  public void setListener(Consumer<SearchResult> listener) {
+    this.listener = listener;
+  }
+
+  /**
+   * Stops a running search as soon as possible. May be called from any thread. The search returns
+   * the result of its last completed iteration.
+   */
+  public void stop() {
+    stopped = true;
+  }
+
+  /**
+   * Searches the current position until the depth, node or time limit is reached.
+   *
+   * @return The result of the deepest completed iteration.
+   */
+  public SearchResult search() {
+    start = System.nanoTime();
+    deadline = maxMillis >= Long.MAX_VALUE / 1_000_000 ? Long.MAX_VALUE
+        : start + maxMillis * 1_000_000;
+    nodes = 0;
+    stopped = false;
+    previousPv = new int[0];
+    table.newSearch();
+    for (int[] killer : killers) {
+      Arrays.fill(killer, Move.NONE);
+    }
+
+    SearchResult result = null;
+    for (int depth = 1; depth <= maxDepth; depth++) {
+      int score = search(depth, 0, -INFINITY, INFINITY);
+      if (stopped && result != null) {
+        break;
+      }
+
+      previousPv = Arrays.copyOf(pv[0], pvLength[0]);
+      result = new SearchResult(depth, score, previousPv, nodes, System.nanoTime() - start);
+      if (listener != null) {
+        listener.accept(result);
+      }
+      if (previousPv.length == 0 || Math.abs(score) >= MATE_BOUND
+          && MATE - Math.abs(score) <= depth) {
+        break;
+      }
+    }
+    return result;
+  }
+
+  private int search(int depth, int ply, int alpha, int beta) {
+    pvLength[ply] = ply;
+    if (ply > 0 && (board.isRepetition() || board.isGameADraw())) {
+      return 0;
+    }
+
+    boolean inCheck = board.isKingInCheck(board.isTopTurn());
+    if (inCheck) {
+      depth++;
+    }
+    if (depth <= 0 || ply >= MAX_PLY) {
+      return quiesce(ply, alpha, beta);
+    }
+
+    nodes++;
+    if (checkLimits()) {
+      return 0;
+    }
+
+    long key = board.positionKey();
+    long entry = table.probe(key);
+    int bestMove = ply < previousPv.length ? previousPv[ply] : Move.NONE;
+    if (entry != 0) {
+      bestMove = TranspositionTable.move(entry);
+      if (beta - alpha == 1 && TranspositionTable.depth(entry) >= depth) {
+        int score = TranspositionTable.score(entry, ply);
+        int bound = TranspositionTable.bound(entry);
+        if (bound == TranspositionTable.EXACT
+            || bound == TranspositionTable.LOWER && score >= beta
+            || bound == TranspositionTable.UPPER && score <= alpha) {
+          return score;
+        }
+      }
+    }
+
+    MoveList moves = moveLists[ply];
+    board.generateLegalMoves(moves);
+    if (moves.isEmpty()) {
+      return inCheck ? -MATE + ply : 0;
+    }
+    scoreMoves(moves, ply, bestMove);
+
+    int bound = TranspositionTable.UPPER;
+    bestMove = Move.NONE;
+    boolean first = true;
+    for (int i = 0; i < moves.size(); i++) {
+      int move = nextMove(moves, ply, i);
+      board.makeMove(move);
+      int score;
+      if (first) {
+        score = -search(depth - 1, ply + 1, -beta, -alpha);
+      } else {
+        score = -search(depth - 1, ply + 1, -alpha - 1, -alpha);
+        if (score > alpha && score < beta) {
+          score = -search(depth - 1, ply + 1, -beta, -alpha);
+        }
+      }
+      board.unmakeMove();
+      if (stopped) {
+        return 0;
+      }
+
+      if (score > alpha) {
+        alpha = score;
+        bestMove = move;
+        bound = TranspositionTable.EXACT;
+        updatePv(ply, move);
+        if (score >= beta) {
+          if (!Move.isCapture(move)) {
+            storeKiller(ply, move);
+          }
+          table.store(key, move, score, depth, TranspositionTable.LOWER, ply);
+          return score;
+        }
+      }
+      first = false;
+    }
+
+    table.store(key, bestMove, alpha, depth, bound, ply);
+    return alpha;
+  }
+
+  /**
+   * Searches captures and promotions only, until the position is quiet, so that the evaluation is
+   * never made in the middle of an exchange.
+   */
+  private int quiesce(int ply, int alpha, int beta) {
+    pvLength[ply] = ply;
+    nodes++;
+    if (checkLimits()) {
+      return 0;
+    }
+
+    int standPat = Evaluator.evaluate(board);
+    if (standPat >= beta || ply >= MAX_PLY) {
+      return standPat;
+    }
+    alpha = Math.max(alpha, standPat);
+
+    MoveList moves = moveLists[ply];
+    board.generateLegalMoves(moves);
+    scoreMoves(moves, ply, Move.NONE);
+
+    for (int i = 0; i < moves.size(); i++) {
+      int move = nextMove(moves, ply, i);
+      if (!Move.isCapture(move) && !Move.isPromotion(move)) {
+        break;
+      }
+
+      board.makeMove(move);
+      int score = -quiesce(ply + 1, -beta, -alpha);
+      board.unmakeMove();
+      if (stopped) {
+        return 0;
+      }
+
+      if (score > alpha) {
+        alpha = score;
+        updatePv(ply, move);
+        if (score >= beta) {
+          return score;
+        }
+      }
+    }
+    return alpha;
+  }
+
+  /**
+   * Orders the moves of a ply by writing a sort key for each of them, highest first: the best move
+   * found before, captures and promotions by the value of the captured piece
+   * and the capturer, the killer moves and the rest.
+   */
+  private void scoreMoves(MoveList moves, int ply, int bestMove) {
+    int[] order = orders[ply];
+    for (int i = 0; i < moves.size(); i++) {
+      int move = moves.get(i);
+      int key;
+      if (move == bestMove) {
+        key = 1 << 24;
+      } else if (Move.isCapture(move) || Move.isPromotion(move)) {
+        int victim = Move.isEnPassant(move)
+            ? Evaluator.PAWN : Evaluator.valueAt(board, Move.to(move));
+        int promotion = Move.isPromotion(move) ? Evaluator.QUEEN : 0;
+        key = (1 << 20) + (victim + promotion) * 16
+            - Evaluator.valueAt(board, Move.from(move)) / 100;
+      } else if (move == killers[ply][0]) {
+        key = 2;
+      } else if (move == killers[ply][1]) {
+        key = 1;
+      } else {
+        key = 0;
+      }
+      order[i] = key;
+    }
+  }
+
+  /**
+   * Returns the i:th move in the order of the sort keys, by swapping the best remaining move into
+   * place. Most cut-offs happen after the first few moves, so the rest are never sorted.
+   */
+  private int nextMove(MoveList moves, int ply, int i) {
+    int[] order = orders[ply];
+    int best = i;
+    for (int j = i + 1; j < moves.size(); j++) {
+      if (order[j] > order[best]) {
+        best = j;
+      }
+    }
+
+    int move = moves.get(best);
+    if (best != i) {
+      order[best] = order[i];
+      moves.set(best, moves.get(i));
+      moves.set(i, move);
+    }
+    return move;
+  }
+
+  private void updatePv(int ply, int move) {
+    pv[ply][ply] = move;
+    System.arraycopy(pv[ply + 1], ply + 1, pv[ply], ply + 1, pvLength[ply + 1] - ply - 1);
+    pvLength[ply] = Math.max(pvLength[ply + 1], ply + 1);
+  }
+
+  private void storeKiller(int ply, int move) {
+    if (killers[ply][0] != move) {
+      killers[ply][1] = killers[ply][0];
+      killers[ply][0] = move;
+    }
+  }
+
+  /**
+   * Stops the search if a limit has been reached, but never during the first iteration.
+   */
+  private boolean checkLimits() {
+    if (stopped) {
+      return true;
+    }
+    if (previousPv.length == 0) {
+      return false;
+    }
+
+    if (nodes >= maxNodes
+        || (nodes & (CHECK_INTERVAL - 1)) == 0 && System.nanoTime() - deadline > 0) {
+      stopped = true;
+    }
+    return stopped;
+  }
+
+}
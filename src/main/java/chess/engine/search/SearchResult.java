@@ -0,0 +1,121 @@
+package chess.engine.search;
+
+import chess.engine.Move;
+import java.util.Arrays;
+
+/**
+ * The outcome of one completed iteration of a search.
+ */
+public final class SearchResult {
+
+  private final int depth;
+  private final int score;
+  private final int[] principalVariation;
+  private final long nodes;
+  private final long nanos;
+
+  SearchResult(int depth, int score, int[] principalVariation, long nodes, long nanos) {
+    this.depth = depth;
+    this.score = score;
+    this.principalVariation = principalVariation;
+    this.nodes = nodes;
+    this.nanos = nanos;
+  }
+
+  /**
+   * The move the search would play.
+   *
+   * @return The packed move, or Move.NONE if the position has no legal moves. See Move for the
+   *     encoding.
+   */
+  public int getBestMove() {
+    return principalVariation.length > 0 ? principalVariation[0] : Move.NONE;
+  }
+
+  /**
+   * The score of the position for the team to move, in centipawns.
+   *
+   * @return The score. Mates are scored beyond Search.MATE_BOUND, see isMate().
+   */
+  public int getScore() {
+    return score;
+  }
+
+  /**
+   * Returns whether or not the score is a forced mate, by either team.
+   *
+   * @return True or false.
+   */
+  public boolean isMate() {
+    return Math.abs(score) >= Search.MATE_BOUND;
+  }
+
+  /**
+   * The number of moves until mate, negative if the team to move gets mated.
+   *
+   * @return The moves of the mating team, or zero if the score is not a mate.
+   */
+  public int getMateIn() {
+    if (!isMate()) {
+      return 0;
+    }
+
+    int plies = Search.MATE - Math.abs(score);
+    return score > 0 ? (plies + 1) / 2 : -(plies + 1) / 2;
+  }
+
+  /**
+   * The moves the search expects both teams to play, starting with the best move.
+   *
+   * @return A copy of the packed moves.
+   */
+  public int[] getPrincipalVariation() {
+    return principalVariation.clone();
+  }
+
+  /**
+   * The depth of the completed iteration.
+   *
+   * @return The depth in plies, not counting the quiescence search.
+   */
+  public int getDepth() {
+    return depth;
+  }
+
+  /**
+   * The number of positions visited since the search started.
+   *
+   * @return A non-negative number.
+   */
+  public long getNodes() {
+    return nodes;
+  }
+
+  public long getElapsedMillis() {
+    return nanos / 1_000_000;
+  }
+
+  public long getNodesPerSecond() {
+    return nanos > 0 ? nodes * 1_000_000_000 / nanos : 0;
+  }
+
+  /**
+   * Converts the result into a readable String.
+   *
+   * @return A string in the format "depth 5 score cp 30 nodes 12000 nps 400000 time 30 pv e2e4",
+   *     followed by the rest of the principal variation, with "score mate 3" for mates.
+   */
+  @Override
+  public String toString() {
+    StringBuilder builder = new StringBuilder(64)
+        .append("depth ").append(depth)
+        .append(isMate() ? " score mate " : " score cp ").append(isMate() ? getMateIn() : score)
+        .append(" nodes ").append(nodes)
+        .append(" nps ").append(getNodesPerSecond())
+        .append(" time ").append(getElapsedMillis())
+        .append(" pv");
+    Arrays.stream(principalVariation).forEach(m -> builder.append(' ').append(Move.toString(m)));
+    return builder.toString();
+  }
+
+}
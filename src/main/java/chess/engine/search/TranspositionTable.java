@@ -0,0 +1,216 @@
+package chess.engine.search;
+
+import java.util.Arrays;
+
+/**
+ * A fixed-size table of searched positions, shared by any number of searches without locks. Every
+ * entry is two longs in one flat array: the data of the entry and the position key XOR-ed with the
+ * data. A probe only accepts an entry if the two XOR back to the key it looks for, so an entry torn
+ * by two threads writing it at the same time reads as a miss instead of as wrong data.
+ *
+ * <p>The data packs the best move in bits 0-18, the score plus 32768 in bits 19-34, the depth in
+ * bits 35-42, the bound in bits 43-44 and the age of the search which stored it in bits 45-52. An
+ * empty entry is all zeros, which no stored entry is since its score is offset.
+ *
+ * <p>Entries are grouped into buckets of four, 64 bytes, filling one cache line. A position may be
+ * stored in any entry of its bucket. An entry of the same position is replaced unless it is much
+ * deeper, otherwise the entry to replace is the one from the oldest search, and among those of the
+ * same age the shallowest.
+ */
+public final class TranspositionTable {
+
+  /** The score is at most the stored score; no move beat alpha. */
+  public static final int UPPER = 1;
+  /** The score is at least the stored score; the move caused a beta cut-off. */
+  public static final int LOWER = 2;
+  /** The score is exact. */
+  public static final int EXACT = 3;
+
+  private static final int BUCKET_SIZE = 4;
+  private static final int ENTRY_LONGS = 2;
+  private static final int ENTRY_BYTES = ENTRY_LONGS * Long.BYTES;
+
+  private static final int SCORE_SHIFT = 19;
+  private static final int DEPTH_SHIFT = 35;
+  private static final int BOUND_SHIFT = 43;
+  private static final int AGE_SHIFT = 45;
+  private static final int MOVE_MASK = 0x7FFFF;
+  private static final int SCORE_OFFSET = 1 << 15;
+  private static final long MAX_BUCKETS = 1L << 27;
+
+  private final long[] entries;
+  private final int bucketMask;
+  private volatile int age;
+
+  /**
+   * Creates an empty table of at most the provided size, rounded down to a power of two buckets.
+   *
+   * @param megabytes The size of the table in megabytes, at least one.
+   */
+  public TranspositionTable(int megabytes) {
+    long bytes = Math.max(1, megabytes) * (1L << 20);
+    long buckets = Math.min(Long.highestOneBit(bytes / (ENTRY_BYTES * BUCKET_SIZE)), MAX_BUCKETS);
+    entries = new long[(int) buckets * BUCKET_SIZE * ENTRY_LONGS];
+    bucketMask = (int) buckets - 1;
+  }
+
+  /**
+   * Ages every entry by one search, so that entries of earlier searches are replaced first. Called
+   * once per search, not per iteration.
+   */
+  public void newSearch() {
+    age = age + 1 & 0xFF;
+  }
+
+  /**
+   * Removes all entries.
+   */
+  public void clear() {
+    Arrays.fill(entries, 0);
+  }
+
+  /**
+   * Looks up a position.
+   *
+   * @param key The Zobrist key of the position, see BoardInterface.positionKey().
+   * @return The data of the entry, to be read with move, score, depth and bound, or zero if the
+   *     position is not stored.
+   */
+  public long probe(long key) {
+    int index = bucketOf(key);
+    for (int i = 0; i < BUCKET_SIZE; i++, index += ENTRY_LONGS) {
+      long data = entries[index + 1];
+      if ((entries[index] ^ data) == key && data != 0) {
+        return data;
+      }
+    }
+    return 0;
+  }
+
+  /**
+   * Stores a searched position.
+   *
+   * @param key The Zobrist key of the position.
+   * @param move The best move, or Move.NONE if there is none. The move of an earlier entry of the
+   *     position is kept in that case.
+   * @param score The score found by the search.
+   * @param depth The depth searched, between 0 and 255.
+   * @param bound Whether the score is an UPPER bound, a LOWER bound or EXACT.
+   * @param ply The distance from the root, so that mate scores can be stored relative to the
+   *     position instead of the root.
+   */
+  public void store(long key, int move, int score, int depth, int bound, int ply) {
+    int bucket = bucketOf(key);
+    int current = age;
+    int replace = bucket;
+    int worst = Integer.MAX_VALUE;
+
+    for (int i = 0, index = bucket; i < BUCKET_SIZE; i++, index += ENTRY_LONGS) {
+      long data = entries[index + 1];
+      if ((entries[index] ^ data) == key && data != 0) {
+        if (depth < depth(data) - 2 && bound != EXACT && ageOf(data) == current) {
+          return;
+        }
+        if (move == 0) {
+          move = move(data);
+        }
+        replace = index;
+        break;
+      }
+
+      int value = data == 0 ? Integer.MIN_VALUE
+          : depth(data) - 8 * (current - ageOf(data) & 0xFF);
+      if (value < worst) {
+        worst = value;
+        replace = index;
+      }
+    }
+
+    long data = move & MOVE_MASK
+        | (long) (toStored(score, ply) + SCORE_OFFSET) << SCORE_SHIFT
+        | (long) Math.max(0, Math.min(depth, 0xFF)) << DEPTH_SHIFT
+        | (long) bound << BOUND_SHIFT
+        | (long) current << AGE_SHIFT;
+    entries[replace] = key ^ data;
+    entries[replace + 1] = data;
+  }
+
+  /**
+   * Estimates how full the table is from a sample of its first entries.
+   *
+   * @return The number of entries per thousand stored by the current search.
+   */
+  public int getPermille() {
+    int sample = Math.min(1000, entries.length / ENTRY_LONGS);
+    int current = age;
+    int used = 0;
+    for (int i = 0; i < sample; i++) {
+      long data = entries[i * ENTRY_LONGS + 1];
+      if (data != 0 && ageOf(data) == current) {
+        used++;
+      }
+    }
+    return used * 1000 / sample;
+  }
+
+  /**
+   * The size of the table.
+   *
+   * @return The number of entries.
+   */
+  public int size() {
+    return entries.length / ENTRY_LONGS;
+  }
+
+  public static int move(long data) {
+    return (int) data & MOVE_MASK;
+  }
+
+  /**
+   * The score of an entry, as seen from the root.
+   *
+   * @param data The data returned by probe.
+   * @param ply The distance of the probing position from the root.
+   * @return The score.
+   */
+  public static int score(long data, int ply) {
+    int score = (int) (data >>> SCORE_SHIFT & 0xFFFF) - SCORE_OFFSET;
+    if (score >= Search.MATE_BOUND) {
+      return score - ply;
+    }
+    if (score <= -Search.MATE_BOUND) {
+      return score + ply;
+    }
+    return score;
+  }
+
+  public static int depth(long data) {
+    return (int) (data >>> DEPTH_SHIFT & 0xFF);
+  }
+
+  public static int bound(long data) {
+    return (int) (data >>> BOUND_SHIFT & 0x3);
+  }
+
+  private static int ageOf(long data) {
+    return (int) (data >>> AGE_SHIFT & 0xFF);
+  }
+
+  /**
+   * Converts a mate score from the distance to the root to the distance to the position.
+   */
+  private static int toStored(int score, int ply) {
+    if (score >= Search.MATE_BOUND) {
+      return score + ply;
+    }
+    if (score <= -Search.MATE_BOUND) {
+      return score - ply;
+    }
+    return score;
+  }
+
+  private int bucketOf(long key) {
+    return ((int) (key ^ key >>> 32) & bucketMask) * BUCKET_SIZE * ENTRY_LONGS;
+  }
+
+}
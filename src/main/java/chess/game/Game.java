@@ -1,7 +1,11 @@
 package chess.game;
 
+import chess.engine.Action;
 import chess.engine.Board;
+import chess.engine.BoardFactory;
 import chess.engine.BoardInterface;
+import chess.engine.Snapshot;
+import chess.engine.pieces.Piece;
 import chess.game.drawables.DrawablePiece;
 import chess.network.ConnectedGame;
 import java.awt.Color;
@@ -13,8 +17,10 @@ import java.awt.event.MouseEvent;
 import java.awt.image.BufferStrategy;
 import java.io.IOException;
 import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.function.Predicate;
 import javax.swing.JFrame;
 import javax.swing.JOptionPane;
 import org.slf4j.Logger;
@@ -29,8 +35,14 @@ public class Game extends JFrame implements Runnable {
   private int marginX;
   private int marginY;
 
+  /**
+   * The board of this game, changed by the event dispatch thread and the network thread of
+   * ConnectedGame, which both synchronize on it. Nobody waits for the network while holding it. The
+   * render loop only reads the snapshots published by the board, and never takes the lock.
+   */
   private BoardInterface board;
-  private List<DrawablePiece> pieces;
+  private Snapshot snapshot;
+  private List<DrawablePiece> pieces = new ArrayList<>();
 
   private Color light = new Color(255, 178, 127);
   private Color dark = new Color(183, 126, 91);
@@ -49,10 +61,10 @@ public class Game extends JFrame implements Runnable {
   private void start() {
     createFrame();
 
-    board = Board.getInstance();
+    board = BoardFactory.fromSystemProperty().create();
     resetBoard();
 
-    multiPlayer = new ConnectedGame(board.getEngine());
+    multiPlayer = new ConnectedGame(board);
 
     setupInput();
 
@@ -61,8 +73,9 @@ public class Game extends JFrame implements Runnable {
   }
 
   private void resetBoard() {
-    board.setupStandardBoard(false);
-    pieces = board.getPieces().stream().map(DrawablePiece::new).collect(Collectors.toList());
+    synchronized (board) {
+      board.setupStandardBoard(false);
+    }
   }
 
   private void createFrame() {
@@ -94,25 +107,31 @@ public class Game extends JFrame implements Runnable {
           return;
         }
 
-        if (board.hasSelected()) {
-          if (board.tryGoTo(row, col)) {
-            char promotion = 0;
-            if (board.isPromoting()) {
-              promotion = promote();
-            }
-
-            multiPlayer.moveMade(board.getLastMove(), promotion);
-
+        Action move;
+        boolean promoting;
+        synchronized (board) {
+          if (!board.hasSelected() || !board.tryGoTo(row, col)) {
+            board.selectPieceAt(row, col);
             return;
           }
+
+          move = board.getLastMove();
+          promoting = board.isPromoting();
         }
 
-        board.selectPieceAt(row, col);
+        char promotion = 0;
+        if (promoting) {
+          promotion = promote();
+        }
+
+        multiPlayer.moveMade(move, promotion);
       }
 
       private char promote() {
         BoardInterface.Promotion promotion = PromotionDialog.queryPiece(rootPane);
-        board.promoteTo(promotion);
+        synchronized (board) {
+          board.promoteTo(promotion);
+        }
         return promotion.charCode();
       }
     });
@@ -163,13 +182,16 @@ public class Game extends JFrame implements Runnable {
 
         if (multiPlayer.isOurTurn()) {
 
-          if (key == KeyEvent.VK_Q) {
-            if (board.doCastling(true)) {
-              multiPlayer.moveMade(board.getLastMove());
+          if (key == KeyEvent.VK_Q || key == KeyEvent.VK_R) {
+            Action move = null;
+            synchronized (board) {
+              if (board.doCastling(key == KeyEvent.VK_Q)) {
+                move = board.getLastMove();
+              }
             }
-          } else if (key == KeyEvent.VK_R) {
-            if (board.doCastling(false)) {
-              multiPlayer.moveMade(board.getLastMove());
+
+            if (move != null) {
+              multiPlayer.moveMade(move);
             }
           }
 
@@ -182,17 +204,57 @@ public class Game extends JFrame implements Runnable {
 
   private void update(float dt) {
 
-    if (pieces.stream().anyMatch(DrawablePiece::requiresReload)) {
-      pieces = board.getPieces().stream().map(DrawablePiece::new).collect(Collectors.toList());
+    Snapshot current = board.getSnapshot();
+    if (current != snapshot) {
+      pieces = follow(pieces, current.getPieces());
+      snapshot = current;
     }
 
     pieces.forEach(m -> m.update(dt));
 
   }
 
+  /**
+   * Creates the drawables for the pieces of a new snapshot. A piece standing where a drawable of
+   * the same kind stood keeps being drawn there, and the other pieces take over a remaining
+   * drawable of the same kind, so that moved pieces slide from their previous square.
+   */
+  private static List<DrawablePiece> follow(List<DrawablePiece> drawables, List<Piece> pieces) {
+    List<DrawablePiece> remaining = new ArrayList<>(drawables);
+    DrawablePiece[] previous = new DrawablePiece[pieces.size()];
+
+    for (int i = 0; i < pieces.size(); i++) {
+      Piece piece = pieces.get(i);
+      previous[i] = take(remaining, m -> m.toChar() == piece.toChar()
+          && m.isAt(piece.row(), piece.col()));
+    }
+
+    List<DrawablePiece> followed = new ArrayList<>(pieces.size());
+    for (int i = 0; i < pieces.size(); i++) {
+      Piece piece = pieces.get(i);
+      if (previous[i] == null) {
+        previous[i] = take(remaining, m -> m.toChar() == piece.toChar());
+      }
+      followed.add(new DrawablePiece(piece, previous[i]));
+    }
+    return followed;
+  }
+
+  private static DrawablePiece take(List<DrawablePiece> drawables, Predicate<Piece> condition) {
+    Iterator<DrawablePiece> iterator = drawables.iterator();
+    while (iterator.hasNext()) {
+      DrawablePiece drawable = iterator.next();
+      if (condition.test(drawable.getPiece())) {
+        iterator.remove();
+        return drawable;
+      }
+    }
+    return null;
+  }
+
   private void render(Graphics2D g) {
     if (multiPlayer.isOurTurn()) {
-      g.setColor(board.isTopTurn() ? Color.BLACK : Color.WHITE);
+      g.setColor(snapshot.isTopTurn() ? Color.BLACK : Color.WHITE);
     } else {
       g.setColor(Color.GRAY);
     }
@@ -212,12 +274,12 @@ public class Game extends JFrame implements Runnable {
     pieces.forEach(m -> m.draw(g));
     pieces.stream().filter(DrawablePiece::isSelected).forEach(m -> m.drawPositions(g));
 
-    g.setColor(board.isTopTurn() ? Color.WHITE : Color.BLACK);
+    g.setColor(snapshot.isTopTurn() ? Color.WHITE : Color.BLACK);
     g.drawRect(0, 0, boardSize, boardSize);
 
-    String turn = board.isTopTurn() ? "Black's turn" : "White's turn";
+    String turn = snapshot.isTopTurn() ? "Black's turn" : "White's turn";
     g.drawString(turn, -marginX * 0.75f, 50);
-    g.drawString(board.getGameState().name(), -marginX * 0.75f, 75);
+    g.drawString(snapshot.getGameState().name(), -marginX * 0.75f, 75);
 
   }
 
@@ -29,6 +29,21 @@ public class DrawablePiece {
     loadImage();
   }
 
+  /**
+   * Creates a drawable piece which continues to be drawn where a previous one was, so that it moves
+   * smoothly to the square of the new piece.
+   *
+   * @param piece The piece to be rendered.
+   * @param previous The drawable which is replaced, or null if there is none.
+   */
+  public DrawablePiece(Piece piece, DrawablePiece previous) {
+    this(piece);
+    if (previous != null) {
+      drawX = previous.drawX;
+      drawY = previous.drawY;
+    }
+  }
+
   /**
    * Updates the visible information of the piece.
    *
@@ -110,8 +125,8 @@ public class DrawablePiece {
     return piece != null && piece.getState() == Piece.State.Selected;
   }
 
-  public boolean requiresReload() {
-    return piece != null && piece.getState() == Piece.State.Promoted;
+  public Piece getPiece() {
+    return piece;
   }
 
   private void loadImage() {
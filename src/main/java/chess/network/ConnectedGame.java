@@ -1,7 +1,7 @@
 package chess.network;
 
 import chess.engine.Action;
-import chess.engine.Board;
+import chess.engine.BoardInterface;
 import chess.engine.BoardInterface.Promotion;
 import chess.engine.pieces.King;
 import chess.engine.pieces.Square;
@@ -19,7 +19,7 @@ public class ConnectedGame implements Runnable {
   }
 
   private ConnectionManager connectionMgr;
-  private volatile Board board;
+  private final BoardInterface board;
 
   private volatile String activeJsonBatch;
   private boolean isTopTeam;
@@ -27,7 +27,15 @@ public class ConnectedGame implements Runnable {
 
   private final Logger logger = LoggerFactory.getLogger(ConnectedGame.class);
 
-  public ConnectedGame(Board board) {
+  /**
+   * Creates the network part of a game played on the provided board. Boards are not thread-safe,
+   * so the network thread synchronizes on the board whenever it uses it, and so must every other
+   * thread using the board while connected. Calls to this object must not be made while holding the
+   * lock of the board.
+   *
+   * @param board The board of the game.
+   */
+  public ConnectedGame(BoardInterface board) {
     this.board = board;
     connectionMgr = new ConnectionManager();
   }
@@ -151,7 +159,11 @@ public class ConnectedGame implements Runnable {
       return true;
     }
 
-    return board.isTopTurn() == isTopTeam;
+    return isTopTurn() == isTopTeam;
+  }
+
+  private boolean isTopTurn() {
+    return board.getSnapshot().isTopTurn();
   }
 
   /**
@@ -211,8 +223,13 @@ public class ConnectedGame implements Runnable {
       return false;
     }
 
+    ParseResult result;
+    synchronized (board) {
+      result = applyMove(jsonObj);
+    }
+
     String response = "ok";
-    switch (applyMove(jsonObj)) {
+    switch (result) {
       case Invalid:
         response = "invalid";
         logger.debug("Move is invalid.");
@@ -230,9 +247,13 @@ public class ConnectedGame implements Runnable {
 
   private void makeMoveAndSend() throws InterruptedException, IOException {
     logger.debug("Creating board backup.");
-    Board backup = board.getDeepCopy();
+    BoardInterface backup;
+    synchronized (board) {
+      backup = board.getDeepCopy();
+    }
+
     do {
-      if (board.isTopTurn() == isTopTeam) {
+      if (isTopTurn() == isTopTeam) {
         logger.debug("Waiting for our move.");
         wait();
 
@@ -242,7 +263,7 @@ public class ConnectedGame implements Runnable {
 
       JSONObject jsonObj = connectionMgr.receiveResponse();
       if (jsonObj == null) {
-        board.reset(backup);
+        restore(backup);
         logger.warn("Incorrect packet-type. Board restored.");
         continue;
       }
@@ -255,11 +276,17 @@ public class ConnectedGame implements Runnable {
         }
       }
 
-      board.reset(backup);
+      restore(backup);
       logger.warn("Move was deemed invalid by opponent. Board restored.");
     } while (true);
   }
 
+  private void restore(BoardInterface backup) {
+    synchronized (board) {
+      board.reset(backup);
+    }
+  }
+
   private String actionToJson(Action action, char promotion) {
     promotion = Character.toLowerCase(promotion);
     boolean validPromotion =
@@ -274,7 +301,7 @@ public class ConnectedGame implements Runnable {
   }
 
   private ParseResult applyMove(JSONObject jsonObj) {
-    Board copy = board.getDeepCopy();
+    BoardInterface copy = board.getDeepCopy();
     logger.debug("Board backup created.");
 
     Square src;
@@ -293,7 +320,7 @@ public class ConnectedGame implements Runnable {
         return ParseResult.Invalid;
       }
 
-      if (!copy.selectPieceAt(src)) {
+      if (!copy.selectPieceAt(src.row(), src.col())) {
         logger.debug("Piece selection failed.");
         return ParseResult.Invalid;
       }
@@ -310,7 +337,7 @@ public class ConnectedGame implements Runnable {
 
         isCastling = true;
 
-      } else if (!copy.tryGoTo(target)) {
+      } else if (!copy.tryGoTo(target.row(), target.col())) {
         logger.debug("Move failed.");
         return ParseResult.Invalid;
       }
@@ -332,11 +359,11 @@ public class ConnectedGame implements Runnable {
 
     // Apply the move to the main board if it was successful.
 
-    board.selectPieceAt(src);
+    board.selectPieceAt(src.row(), src.col());
     if (isCastling) {
       board.doCastling(src.col() > target.col());
     } else {
-      board.tryGoTo(target);
+      board.tryGoTo(target.row(), target.col());
     }
 
     if (board.isPromoting()) {
@@ -0,0 +1,328 @@
+package chess.validation;
+
+import chess.engine.Board;
+import chess.engine.BoardInterface.State;
+import chess.engine.pgn.PgnReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Consumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Replays every game of a PGN archive to validate its moves. The archive is read in one pass and
+ * split into batches of whole games, which are replayed in parallel on a fork-join pool. Every
+ * worker thread replays on its own board. The report of every game is written to a results file
+ * in the order of the archive, as soon as its batch and all batches before it are done, so only a
+ * few batches are held in memory at any time.
+ *
+ * <p>The results file has one tab separated line per game: the number of the game, the number of
+ * moves played, the state of the final position, the result given in the archive and the error,
+ * if any. The state is "Illegal" for games with an illegal move or any other error, counting the
+ * moves up to it.
+ */
+public final class ArchiveValidator {
+
+  private static final Logger logger = LoggerFactory.getLogger(ArchiveValidator.class);
+
+  private static final int BUFFER_SIZE = 1 << 16;
+  private static final ThreadLocal<Board> boards = ThreadLocal.withInitial(Board::create);
+
+  private final ForkJoinPool pool;
+  private final int gamesPerBatch;
+  private Consumer<Board> check;
+
+  /**
+   * Creates a validator running on the provided pool.
+   *
+   * @param pool The pool to replay the games on.
+   * @param gamesPerBatch The number of games replayed by one task.
+   */
+  public ArchiveValidator(ForkJoinPool pool, int gamesPerBatch) {
+    this.pool = pool;
+    this.gamesPerBatch = Math.max(1, gamesPerBatch);
+  }
+
+  /**
+   * Sets an extra check of the final position of every game replayed without an illegal move, i.e
+   * that the result given in the archive matches it. The check is run on the worker threads, on the
+   * board of the game, and reports a problem by throwing an exception whose message is recorded as
+   * the error of the game.
+   *
+   * @param check The check, or null for none.
+   */
+  public void setCheck(Consumer<Board> check) {
+    this.check = check;
+  }
+
+  /**
+   * Validates an archive from the command line. Arguments: the archive, the results file and
+   * optionally the number of threads, by default one per processor.
+   *
+   * @param args The command line arguments.
+   * @throws IOException If reading or writing fails.
+   */
+  public static void main(String[] args) throws IOException {
+    if (args.length < 2) {
+      System.err.println("Usage: ArchiveValidator <archive.pgn> <results.tsv> [threads]");
+      System.exit(1);
+    }
+
+    int threads = args.length > 2
+        ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+    ForkJoinPool pool = new ForkJoinPool(threads);
+    try {
+      long start = System.nanoTime();
+      Summary summary = new ArchiveValidator(pool, 256).validate(Paths.get(args[0]),
+          Paths.get(args[1]));
+      long millis = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+      logger.info("{} in {} ms, {} games/min.", summary, millis,
+          summary.getGames() * 60_000 / millis);
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  /**
+   * Validates every game of an archive.
+   *
+   * @param archive The PGN archive.
+   * @param results The file to write the report of every game to. It is replaced if it exists.
+   * @return The totals of all games.
+   * @throws IOException If reading or writing fails.
+   */
+  public Summary validate(Path archive, Path results) throws IOException {
+    Summary summary = new Summary();
+    Deque<ForkJoinTask<List<Report>>> pending = new ArrayDeque<>();
+    int maxPending = pool.getParallelism() * 2;
+
+    try (FileChannel channel = FileChannel.open(archive, StandardOpenOption.READ);
+        Writer out = Files.newBufferedWriter(results, StandardCharsets.UTF_8)) {
+      out.write("game\tmoves\tstate\tresult\terror\n");
+
+      Splitter splitter = new Splitter();
+      ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+      while (channel.read(buffer) >= 0) {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+          byte[] batch = splitter.accept(buffer.get());
+          if (batch != null) {
+            pending.add(pool.submit(() -> replay(batch)));
+          }
+        }
+        buffer.clear();
+
+        while (pending.size() > maxPending) {
+          write(out, pending.poll().join(), summary);
+        }
+      }
+
+      byte[] batch = splitter.finish();
+      if (batch.length > 0) {
+        pending.add(pool.submit(() -> replay(batch)));
+      }
+      while (!pending.isEmpty()) {
+        write(out, pending.poll().join(), summary);
+      }
+    }
+    return summary;
+  }
+
+  /**
+   * Replays a batch of games on the board of the current thread. Any exception thrown while
+   * replaying or checking a game is recorded as the error of that game, so that one broken game
+   * never fails the rest of the batch.
+   */
+  private List<Report> replay(byte[] batch) throws IOException {
+    Board board = boards.get();
+    List<Report> reports = new ArrayList<>();
+
+    try (PgnReader reader = new PgnReader(
+        Channels.newChannel(new ByteArrayInputStream(batch)))) {
+      while (true) {
+        State state = null;
+        String error = null;
+        try {
+          if (!reader.readGame(board)) {
+            break;
+          }
+          if (check != null) {
+            check.accept(board);
+          }
+          state = board.getGameState();
+        } catch (IllegalArgumentException e) {
+          error = e.getMessage();
+        } catch (RuntimeException e) {
+          error = e.toString();
+        }
+
+        reports.add(new Report(board.getHistory().size(), state, reader.getResult().toString(),
+            error));
+      }
+    }
+    return reports;
+  }
+
+  private static void write(Writer out, List<Report> reports, Summary summary)
+      throws IOException {
+    for (Report report : reports) {
+      long game = summary.add(report);
+      out.append(Long.toString(game)).append('\t')
+          .append(Integer.toString(report.moves)).append('\t')
+          .append(report.state == null ? "Illegal" : report.state.name()).append('\t')
+          .append(report.result).append('\t')
+          .append(report.error == null ? "" : report.error.replaceAll("\\s", " ")).append('\n');
+    }
+  }
+
+  /**
+   * Cuts the bytes of an archive into batches of whole games. A game ends where a tag starts at
+   * the beginning of a line after movetext, outside of comments.
+   */
+  private final class Splitter {
+
+    private byte[] bytes = new byte[BUFFER_SIZE];
+    private int length;
+    private int games;
+    private int comments;
+    private boolean lineComment;
+    private boolean lineStart = true;
+    private boolean movetext;
+
+    /**
+     * Adds a byte to the current batch.
+     *
+     * @return The batch before the byte if it completes one, otherwise null.
+     */
+    byte[] accept(byte b) {
+      byte[] batch = null;
+      if (lineComment) {
+        lineComment = b != '\n';
+      } else if (lineStart && b == '[' && comments == 0) {
+        if (movetext && ++games == gamesPerBatch) {
+          batch = finish();
+        }
+        movetext = false;
+      } else if (b == ';' && comments == 0) {
+        lineComment = true;
+      } else if (b == '{') {
+        comments++;
+      } else if (b == '}' && comments > 0) {
+        comments--;
+      } else if (lineStart && b > ' ' && comments == 0) {
+        movetext = true;
+      }
+
+      if (length == bytes.length) {
+        bytes = Arrays.copyOf(bytes, length * 2);
+      }
+      bytes[length++] = b;
+      lineStart = b == '\n';
+      return batch;
+    }
+
+    /**
+     * Ends the current batch.
+     *
+     * @return The bytes of the batch.
+     */
+    byte[] finish() {
+      byte[] batch = Arrays.copyOf(bytes, length);
+      length = 0;
+      games = 0;
+      return batch;
+    }
+
+  }
+
+  /**
+   * The outcome of one game.
+   */
+  private static final class Report {
+
+    private final int moves;
+    private final State state;
+    private final String result;
+    private final String error;
+
+    Report(int moves, State state, String result, String error) {
+      this.moves = moves;
+      this.state = state;
+      this.result = result;
+      this.error = error;
+    }
+
+  }
+
+  /**
+   * The totals of a validated archive.
+   */
+  public static final class Summary {
+
+    private long games;
+    private long illegal;
+    private long moves;
+    private final Map<State, Long> states = new EnumMap<>(State.class);
+
+    private long add(Report report) {
+      games++;
+      moves += report.moves;
+      if (report.state == null) {
+        illegal++;
+      } else {
+        states.merge(report.state, 1L, Long::sum);
+      }
+      return games;
+    }
+
+    public long getGames() {
+      return games;
+    }
+
+    /**
+     * The number of games with an illegal move or an invalid starting position.
+     */
+    public long getIllegalGames() {
+      return illegal;
+    }
+
+    public long getMoves() {
+      return moves;
+    }
+
+    /**
+     * The number of legal games ending in the provided state.
+     *
+     * @param state The state of the final position.
+     * @return A non-negative number.
+     */
+    public long getGames(State state) {
+      return states.getOrDefault(state, 0L);
+    }
+
+    @Override
+    public String toString() {
+      return games + " games, " + illegal + " illegal, " + moves + " moves, " + states;
+    }
+
+  }
+
+}
@@ -1,6 +1,11 @@
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
 import chess.engine.Action;
+import chess.engine.Bitboards;
+import chess.engine.Move;
 import chess.engine.pieces.Pawn;
 import chess.engine.pieces.Piece;
 import org.junit.Test;
@@ -21,4 +26,20 @@ public class ActionTest {
 
   }
 
+  @Test
+  public void testFlags() {
+    Piece pawn = new Pawn(3, 4, false);
+    Action action = new Action(pawn, 2, 5, Action.Type.Move);
+
+    assertSame(pawn, action.getPiece());
+    assertEquals(Bitboards.square(3, 4), Move.from(action.move()));
+    assertEquals(Bitboards.square(2, 5), Move.to(action.move()));
+    assertFalse(Move.isEnPassant(action.move()));
+
+    action.addFlags(Move.EN_PASSANT);
+    assertTrue(Move.isEnPassant(action.move()));
+    assertEquals("Pawn Move (3, 4) (2, 5) En Passant", action.toString());
+
+  }
+
 }
@@ -0,0 +1,226 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import chess.engine.BitBoard;
+import chess.engine.Board;
+import chess.engine.BoardInterface;
+import chess.engine.pieces.Bishop;
+import chess.engine.pieces.King;
+import chess.engine.pieces.Knight;
+import chess.engine.pieces.Pawn;
+import chess.engine.pieces.Queen;
+import chess.engine.pieces.Rook;
+import org.junit.Test;
+
+public class BitBoardTest {
+
+  @Test
+  public void testDraw() {
+    BitBoard board = new BitBoard();
+    board.setupEmptyBoard(true);
+
+    board.addPiece(new King(0, 0, true));
+    board.addPiece(new King(0, 2, false));
+
+    assertTrue(board.isGameADraw());
+
+    board.addPiece(new Knight(0, 4, false));
+
+    assertTrue(board.isGameADraw());
+
+    board.addPiece(new Bishop(0, 5, false));
+
+    assertFalse(board.isGameADraw());
+
+    board.setupEmptyBoard(true);
+
+    board.addPiece(new King(0, 0, true));
+    board.addPiece(new King(0, 2, false));
+    board.addPiece(new Bishop(0, 4, true));
+    board.addPiece(new Bishop(0, 6, false));
+
+    assertTrue(board.isGameADraw());
+
+  }
+
+  @Test
+  public void testKingCheck() {
+    BitBoard board = new BitBoard();
+    board.setupEmptyBoard(true);
+
+    board.addPiece(new King(2, 3, true));
+    board.addPiece(new Bishop(2, 5, true));
+    board.addPiece(new Knight(3, 7, true));
+    board.addPiece(new King(5, 5, false));
+    board.addPiece(new Bishop(5, 6, false));
+
+    assertTrue(board.isKingInCheck(true));
+    assertFalse(board.isTeamInCheckmate(true));
+
+  }
+
+  @Test
+  public void testCheckmate() {
+    BitBoard board = new BitBoard();
+    board.setupEmptyBoard(true);
+
+    board.addPiece(new King(0, 5, true));
+    board.addPiece(new Rook(3, 7, true));
+    board.addPiece(new Queen(7, 7, true));
+    board.addPiece(new King(7, 6, false));
+    board.addPiece(new Rook(7, 5, false));
+    board.addPiece(new Pawn(6, 5, false));
+    board.addPiece(new Pawn(6, 6, false));
+
+    assertTrue(board.isKingInCheck(false));
+    assertTrue(board.isTeamInCheckmate(false));
+
+  }
+
+  @Test
+  public void testStalemate() {
+    BitBoard board = new BitBoard();
+    board.setupEmptyBoard(true);
+
+    board.addPiece(new King(0, 6, true));
+    board.addPiece(new King(2, 5, false));
+    board.addPiece(new Queen(2, 7, false));
+
+    assertTrue(board.isTeamInStalemate(true));
+    assertEquals(BoardInterface.State.Stalemate, board.getGameState());
+
+  }
+
+  @Test
+  public void testAttackOnKing() {
+    BitBoard board = new BitBoard();
+    board.setupEmptyBoard(true);
+
+    board.addPiece(new Queen(7, 7, true));
+    board.addPiece(new King(7, 6, false));
+
+    assertTrue(board.selectPieceAt(7, 7));
+    assertFalse(board.tryGoTo(7, 6));
+
+  }
+
+  @Test
+  public void testCastling() {
+    BitBoard board = new BitBoard();
+    board.setupEmptyBoard(true);
+
+    board.addPiece(new Rook(0, 0, true));
+    board.addPiece(new Rook(0, 7, true));
+    board.addPiece(new King(0, 4, true));
+    board.addPiece(new Rook(7, 0, false));
+    board.addPiece(new Rook(7, 7, false));
+    board.addPiece(new King(7, 4, false));
+
+    assertTrue(board.selectPieceAt(0, 4));
+    assertTrue(board.doCastling(true));
+
+    assertEquals(board.getAt(0, 2).getClass(), King.class);
+    assertEquals(board.getAt(0, 3).getClass(), Rook.class);
+
+    assertTrue(board.selectPieceAt(7, 7));
+    assertTrue(board.tryGoTo(6, 7));
+    assertTrue(board.selectPieceAt(0, 2));
+    assertTrue(board.tryGoTo(0, 1));
+
+    assertFalse(board.doCastling(false));
+
+  }
+
+  @Test
+  public void testEnPassant() {
+    BitBoard board = new BitBoard();
+    board.setupStandardBoard(true);
+
+    assertTrue(board.selectPieceAt(1, 0));
+    assertTrue(board.tryGoTo(3, 0));
+    assertTrue(board.selectPieceAt(6, 7));
+    assertTrue(board.tryGoTo(5, 7));
+    assertTrue(board.selectPieceAt(3, 0));
+    assertTrue(board.tryGoTo(4, 0));
+
+    assertTrue(board.selectPieceAt(6, 1));
+    assertTrue(board.tryGoTo(4, 1));
+
+    assertTrue(board.selectPieceAt(4, 0));
+    assertTrue(board.tryGoTo(5, 1));
+    assertEquals(null, board.getAt(4, 1));
+    assertTrue(board.getLastMove().toString().endsWith("En Passant"));
+
+  }
+
+  @Test
+  public void testFischerCastling() {
+    BitBoard board = new BitBoard();
+    board.setupEmptyBoard(false);
+
+    board.addPiece(new Rook(7, 7, false));
+    board.addPiece(new King(7, 5, false));
+    board.addPiece(new Rook(7, 1, false));
+    board.addPiece(new King(0, 3, true));
+    board.addPiece(new Rook(0, 0, true));
+
+    assertTrue(board.doCastling(false));
+    assertEquals(board.getAt(7, 5).getClass(), Rook.class);
+    assertEquals(board.getAt(7, 6).getClass(), King.class);
+    assertEquals(null, board.getAt(7, 7));
+
+    assertTrue(board.doCastling(true));
+    assertEquals(board.getAt(0, 3).getClass(), Rook.class);
+    assertEquals(board.getAt(0, 2).getClass(), King.class);
+    assertEquals(null, board.getAt(0, 0));
+
+  }
+
+  @Test
+  public void testPromotion() {
+    BitBoard board = new BitBoard();
+    board.setupEmptyBoard(true);
+
+    board.addPiece(new King(0, 4, true));
+    board.addPiece(new King(7, 4, false));
+    board.addPiece(new Pawn(6, 0, true));
+    board.addPiece(new Knight(7, 1, false));
+
+    assertTrue(board.selectPieceAt(6, 0));
+    assertTrue(board.tryGoTo(7, 1));
+    assertTrue(board.isPromoting());
+    assertFalse(board.selectPieceAt(7, 4));
+    assertTrue(board.promoteTo(BoardInterface.Promotion.Queen));
+
+    assertEquals(board.getAt(7, 1).getClass(), Queen.class);
+    assertTrue(board.isKingInCheck(false));
+
+  }
+
+  @Test
+  public void testSameMovesAsBoard() {
+    Board board = Board.create();
+    board.setupStandardBoard(false);
+    BitBoard bitBoard = new BitBoard();
+    bitBoard.setupStandardBoard(false);
+
+    int[][] moves = {
+        {6, 4, 4, 4}, {1, 4, 3, 4}, {7, 6, 5, 5}, {0, 1, 2, 2}, {7, 5, 4, 2}, {0, 6, 2, 5},
+        {5, 5, 3, 6}, {1, 3, 3, 3}, {4, 4, 3, 3}, {2, 5, 3, 3}, {3, 6, 1, 5}, {0, 4, 1, 5},
+        {7, 3, 3, 7}, {1, 6, 2, 6}, {4, 2, 3, 3}, {0, 2, 2, 4}
+    };
+
+    for (int[] move : moves) {
+      for (BoardInterface current : new BoardInterface[] {board, bitBoard}) {
+        assertTrue(current.selectPieceAt(move[0], move[1]));
+        assertTrue(current.tryGoTo(move[2], move[3]));
+      }
+
+      assertEquals(board.toString(), bitBoard.toString());
+      assertEquals(board.getGameState(), bitBoard.getGameState());
+    }
+
+  }
+
+}
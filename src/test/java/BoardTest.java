@@ -1,20 +1,34 @@
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
+import chess.engine.Action;
+import chess.engine.Bitboards;
 import chess.engine.Board;
+import chess.engine.BoardFactory;
+import chess.engine.BoardInterface;
+import chess.engine.BoardInterface.GameType;
+import chess.engine.BoardInterface.Promotion;
+import chess.engine.BoardInterface.State;
+import chess.engine.Move;
+import chess.engine.Snapshot;
 import chess.engine.pieces.Bishop;
 import chess.engine.pieces.King;
 import chess.engine.pieces.Knight;
 import chess.engine.pieces.Pawn;
+import chess.engine.pieces.Piece;
 import chess.engine.pieces.Queen;
 import chess.engine.pieces.Rook;
+import java.util.ArrayList;
+import java.util.List;
 import org.junit.Test;
 
 public class BoardTest {
 
   @Test
   public void testDraw() {
-    Board board = Board.getInstance().getEngine();
+    Board board = Board.create();
     board.setupEmptyBoard(true);
 
     board.addPiece(new King(0, 0, true));
@@ -47,7 +61,7 @@ public class BoardTest {
 
   @Test
   public void testSquareUnderAttack() {
-    Board board = Board.getInstance().getEngine();
+    Board board = Board.create();
     board.setupStandardBoard(true);
 
     assertFalse(board.isSquareUnderAttack(2, 0, true, false));
@@ -57,7 +71,7 @@ public class BoardTest {
 
   @Test
   public void testKingCheck() {
-    Board board = Board.getInstance().getEngine();
+    Board board = Board.create();
     board.setupEmptyBoard(true);
 
     board.addPiece(new King(2, 3, true));
@@ -73,7 +87,7 @@ public class BoardTest {
 
   @Test
   public void testCheckmate() {
-    Board board = Board.getInstance().getEngine();
+    Board board = Board.create();
     board.setupEmptyBoard(true);
 
     board.addPiece(new King(0, 5, true));
@@ -91,7 +105,7 @@ public class BoardTest {
 
   @Test
   public void testStalemate() {
-    Board board = Board.getInstance().getEngine();
+    Board board = Board.create();
     board.setupEmptyBoard(true);
 
     board.addPiece(new King(0, 6, true));
@@ -104,7 +118,7 @@ public class BoardTest {
 
   @Test
   public void testAttackOnKing() {
-    Board board = Board.getInstance().getEngine();
+    Board board = Board.create();
     board.setupEmptyBoard(true);
 
     board.addPiece(new Queen(7, 7, true));
@@ -115,4 +129,362 @@ public class BoardTest {
 
   }
 
+  @Test
+  public void testPinnedAttacker() {
+    Board board = Board.create();
+    board.setupEmptyBoard(true);
+
+    board.addPiece(new King(0, 4, true));
+    board.addPiece(new Rook(0, 7, true));
+    board.addPiece(new Rook(3, 5, true));
+    board.addPiece(new King(3, 0, false));
+    board.addPiece(new Bishop(3, 2, false));
+
+    assertTrue(board.isSquareUnderAttack(0, 5, true, false));
+    assertFalse(board.isSquareUnderAttack(0, 3, true, false));
+    assertTrue(board.selectPieceAt(0, 4));
+    assertFalse(board.doCastling(false));
+
+  }
+
+  @Test
+  public void testAttacksAfterMove() {
+    Board board = Board.create();
+    board.setupStandardBoard(false);
+
+    assertFalse(board.isSquareUnderAttack(3, 0, false, false));
+    assertTrue(board.selectPieceAt(6, 4));
+    assertTrue(board.tryGoTo(4, 4));
+    assertTrue(board.selectPieceAt(1, 3));
+    assertTrue(board.tryGoTo(3, 3));
+    assertTrue(board.isSquareUnderAttack(3, 1, true, false));
+    assertTrue(board.isSquareUnderAttack(3, 3, true, false));
+
+    assertTrue(board.selectPieceAt(4, 4));
+    assertTrue(board.tryGoTo(3, 3));
+    assertTrue(board.isSquareUnderAttack(3, 3, false, false));
+    assertFalse(board.isSquareUnderAttack(3, 3, true, false));
+
+  }
+
+  @Test
+  public void testCheckEvasion() {
+    Board board = Board.create();
+    board.setupEmptyBoard(true);
+
+    board.addPiece(new King(0, 4, true));
+    board.addPiece(new Rook(2, 0, true));
+    board.addPiece(new Rook(0, 0, true));
+    board.addPiece(new Rook(7, 4, false));
+    board.addPiece(new King(7, 7, false));
+
+    assertTrue(board.isKingInCheck(true));
+    assertTrue(board.selectPieceAt(0, 0));
+    assertFalse(board.tryGoTo(1, 0));
+    assertTrue(board.selectPieceAt(2, 0));
+    assertTrue(board.tryGoTo(2, 4));
+    assertFalse(board.isKingInCheck(true));
+
+  }
+
+  @Test
+  public void testPinnedAlongRay() {
+    Board board = Board.create();
+    board.setupEmptyBoard(true);
+
+    board.addPiece(new King(0, 4, true));
+    board.addPiece(new Rook(2, 4, true));
+    board.addPiece(new Rook(7, 4, false));
+    board.addPiece(new King(7, 7, false));
+
+    assertTrue(board.selectPieceAt(2, 4));
+    assertFalse(board.tryGoTo(2, 0));
+    assertTrue(board.selectPieceAt(2, 4));
+    assertTrue(board.tryGoTo(7, 4));
+
+  }
+
+  @Test
+  public void testEnPassantDiscoveredCheck() {
+    Board board = Board.create();
+    board.setupEmptyBoard(false);
+
+    board.addPiece(new King(3, 0, false));
+    board.addPiece(new Pawn(3, 1, false));
+    board.addPiece(new Pawn(1, 2, true));
+    board.addPiece(new Rook(3, 7, true));
+    board.addPiece(new King(0, 7, true));
+    board.addPiece(new Pawn(6, 7, false));
+
+    assertTrue(board.selectPieceAt(6, 7));
+    assertTrue(board.tryGoTo(5, 7));
+    assertTrue(board.selectPieceAt(1, 2));
+    assertTrue(board.tryGoTo(3, 2));
+    assertTrue(board.selectPieceAt(3, 1));
+    assertFalse(board.tryGoTo(2, 2));
+
+  }
+
+  @Test
+  public void testGameStateAfterMoves() {
+    Board board = Board.create();
+    board.setupStandardBoard(false);
+    assertEquals(State.Normal, board.getGameState());
+
+    int[][] moves = {{6, 5, 5, 5}, {1, 4, 3, 4}, {6, 6, 4, 6}};
+    for (int[] move : moves) {
+      assertTrue(board.selectPieceAt(move[0], move[1]));
+      assertTrue(board.tryGoTo(move[2], move[3]));
+    }
+    assertEquals(State.Normal, board.getGameState());
+
+    board.makeMove(Move.of(Bitboards.square(0, 3), Bitboards.square(4, 7), 0));
+    assertEquals(State.Checkmate, board.getGameState());
+    assertTrue(board.isTeamInCheckmate(false));
+    board.unmakeMove();
+    assertEquals(State.Normal, board.getGameState());
+
+    assertTrue(board.selectPieceAt(0, 3));
+    assertTrue(board.tryGoTo(4, 7));
+    assertEquals(State.Checkmate, board.getGameState());
+
+  }
+
+  @Test
+  public void testStalemateWithoutMaterial() {
+    Board board = Board.create();
+    board.setupEmptyBoard(true);
+    board.addPiece(new King(0, 0, true));
+    board.addPiece(new King(2, 1, false));
+    board.addPiece(new Bishop(2, 3, false));
+
+    assertEquals(State.Draw, board.getGameState());
+    assertTrue(board.isTeamInStalemate(true));
+
+  }
+
+  @Test
+  public void testThreefoldRepetition() {
+    Board board = Board.create();
+    board.setupStandardBoard(false);
+
+    int[][] shuffle = {{7, 6, 5, 5}, {0, 6, 2, 5}, {5, 5, 7, 6}, {2, 5, 0, 6}};
+    for (int i = 0; i < 2; i++) {
+      assertFalse(board.isThreefoldRepetition());
+      for (int[] move : shuffle) {
+        assertTrue(board.selectPieceAt(move[0], move[1]));
+        assertTrue(board.tryGoTo(move[2], move[3]));
+      }
+    }
+
+    assertTrue(board.isThreefoldRepetition());
+    assertEquals(State.Draw, board.getGameState());
+
+    board.makeMove(Move.of(Bitboards.square(6, 4), Bitboards.square(4, 4), Move.DOUBLE_PUSH));
+    assertEquals(0, board.getHalfmoveClock());
+    assertFalse(board.isThreefoldRepetition());
+    board.unmakeMove();
+    assertEquals(8, board.getHalfmoveClock());
+    assertEquals(State.Draw, board.getGameState());
+
+  }
+
+  @Test
+  public void testRepetitionAfterDoublePush() {
+    Board board = Board.create();
+    board.setupStandardBoard(false);
+    assertTrue(board.selectPieceAt(6, 4));
+    assertTrue(board.tryGoTo(4, 4));
+
+    int[][] shuffle = {{0, 6, 2, 5}, {7, 6, 5, 5}, {2, 5, 0, 6}, {5, 5, 7, 6}};
+    for (int i = 0; i < 2; i++) {
+      assertFalse(board.isThreefoldRepetition());
+      for (int[] move : shuffle) {
+        assertTrue(board.selectPieceAt(move[0], move[1]));
+        assertTrue(board.tryGoTo(move[2], move[3]));
+      }
+    }
+
+    assertTrue(board.isThreefoldRepetition());
+
+  }
+
+  @Test
+  public void testFiftyMoves() {
+    Board board = Board.create();
+    board.setupEmptyBoard(false);
+    board.addPiece(new King(7, 7, false));
+    board.addPiece(new Rook(2, 0, false));
+    board.addPiece(new King(0, 0, true));
+    board.addPiece(new Pawn(1, 0, true));
+    board.addPiece(new Pawn(1, 1, true));
+
+    // A cycle of 25 rook squares, so no position is repeated while the king walks back and forth.
+    List<int[]> cycle = new ArrayList<>();
+    for (int col = 0; col < 8; col++) {
+      cycle.add(new int[] {2, col});
+    }
+    for (int col = 7; col >= 0; col--) {
+      cycle.add(new int[] {3, col});
+    }
+    for (int col = 0; col < 7; col++) {
+      cycle.add(new int[] {4, col});
+    }
+    cycle.add(new int[] {5, 6});
+    cycle.add(new int[] {5, 0});
+
+    for (int i = 1; i <= 50; i++) {
+      int[] from = cycle.get((i - 1) % cycle.size());
+      int[] to = cycle.get(i % cycle.size());
+      assertTrue(board.selectPieceAt(from[0], from[1]));
+      assertTrue(board.tryGoTo(to[0], to[1]));
+
+      assertEquals(State.Normal, board.getGameState());
+      assertTrue(board.selectPieceAt(0, i % 2 == 1 ? 0 : 1));
+      assertTrue(board.tryGoTo(0, i % 2 == 1 ? 1 : 0));
+    }
+
+    assertEquals(100, board.getHalfmoveClock());
+    assertFalse(board.isThreefoldRepetition());
+    assertEquals(State.Draw, board.getGameState());
+
+  }
+
+  @Test
+  public void testMaterialAfterPromotion() {
+    Board board = Board.create();
+    board.setupEmptyBoard(false);
+    board.addPiece(new King(7, 0, false));
+    board.addPiece(new King(0, 3, true));
+    board.addPiece(new Pawn(1, 2, false));
+    board.addPiece(new Bishop(5, 4, true));
+    assertFalse(board.isGameADraw());
+
+    board.makeMove(Move.of(Bitboards.square(1, 2), Bitboards.square(0, 2), 0, Promotion.Bishop));
+    assertFalse(board.isGameADraw());
+    board.unmakeMove();
+
+    board.makeMove(Move.of(Bitboards.square(1, 2), Bitboards.square(0, 2), 0, Promotion.Knight));
+    assertFalse(board.isGameADraw());
+
+    board.makeMove(Move.of(Bitboards.square(0, 3), Bitboards.square(0, 2), Move.CAPTURE));
+    assertTrue(board.isGameADraw());
+    board.unmakeMove();
+    assertFalse(board.isGameADraw());
+
+  }
+
+  @Test
+  public void testHistory() {
+    Board board = Board.create();
+    board.setupStandardBoard(false);
+
+    int[][] moves = {{6, 4, 4, 4}, {1, 0, 2, 0}, {4, 4, 3, 4}, {1, 3, 3, 3}};
+    for (int[] move : moves) {
+      assertTrue(board.selectPieceAt(move[0], move[1]));
+      assertTrue(board.tryGoTo(move[2], move[3]));
+    }
+    assertEquals(Bitboards.square(2, 3), board.getEnPassantSquare());
+
+    assertTrue(board.selectPieceAt(3, 4));
+    assertTrue(board.tryGoTo(2, 3));
+    assertEquals(-1, board.getEnPassantSquare());
+    assertEquals(null, board.getAt(3, 3));
+
+    List<Action> history = board.getHistory();
+    assertEquals(5, history.size());
+    assertTrue(history.get(0).getPiece() instanceof Pawn);
+    assertTrue(history.get(0).getPiece().isAt(6, 4));
+    assertFalse(history.get(0).getPiece().hasMoved());
+    assertTrue(history.get(2).getPiece().hasMoved());
+    assertEquals("Pawn Move (3, 4) (2, 3) En Passant", board.getLastMove().toString());
+
+  }
+
+  @Test
+  public void testIndependentBoards() {
+    for (BoardFactory factory : new BoardFactory[] {BoardFactory.RULE_ENGINE,
+        BoardFactory.BITBOARD}) {
+      BoardInterface first = factory.create();
+      BoardInterface second = factory.create();
+      first.setupStandardBoard(false);
+      second.setupStandardBoard(false);
+
+      assertTrue(first.selectPieceAt(6, 4));
+      assertTrue(first.tryGoTo(4, 4));
+
+      assertTrue(first.isTopTurn());
+      assertFalse(second.isTopTurn());
+      assertEquals(null, second.getAt(4, 4));
+      assertTrue(second.getAt(6, 4) instanceof Pawn);
+    }
+
+  }
+
+  @Test
+  public void testSnapshot() {
+    for (BoardFactory factory : new BoardFactory[] {BoardFactory.RULE_ENGINE,
+        BoardFactory.BITBOARD}) {
+      BoardInterface board = factory.create();
+      board.setupStandardBoard(false);
+
+      Snapshot before = board.getSnapshot();
+      assertFalse(before.isTopTurn());
+      assertEquals(State.Normal, before.getGameState());
+      assertEquals(32, before.getPieces().size());
+
+      assertTrue(board.selectPieceAt(6, 4));
+      assertTrue(board.getSnapshot().getPieces().stream()
+          .anyMatch(m -> m.isAt(6, 4) && m.getState() == Piece.State.Selected));
+      assertTrue(board.tryGoTo(4, 4));
+
+      Snapshot after = board.getSnapshot();
+      assertTrue(after.isTopTurn());
+      assertEquals(board.positionKey(), after.positionKey());
+      assertTrue(after.getPieces().stream().anyMatch(m -> m.isAt(4, 4) && m.hasMoved()));
+      assertFalse(before.getPieces().stream().anyMatch(m -> m.isAt(4, 4)));
+      assertSame(after, board.getDeepCopy().getSnapshot());
+    }
+
+  }
+
+  @Test
+  public void testFen() {
+    Board board = Board.create();
+    String start = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+    board.setupFromFen(start);
+    assertEquals(start, board.toFen());
+
+    Board standard = Board.create();
+    standard.setupStandardBoard(false);
+    assertEquals(standard.positionKey(), board.positionKey());
+    assertEquals(start, standard.toFen());
+
+    assertTrue(standard.selectPieceAt(6, 4));
+    assertTrue(standard.tryGoTo(4, 4));
+    assertEquals("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1", standard.toFen());
+
+    String kiwipete = "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w Kq - 3 17";
+    board.setupFromFen(kiwipete);
+    assertEquals(kiwipete, board.toFen());
+    assertEquals(3, board.getHalfmoveClock());
+
+    board.setupFromFen("4k3/8/8/3pP3/8/8/8/4K3 w - d6 0 2");
+    assertEquals(Bitboards.square(2, 3), board.getEnPassantSquare());
+    assertTrue(board.selectPieceAt(3, 4));
+    assertTrue(board.tryGoTo(2, 3));
+    assertEquals("4k3/8/3P4/8/8/8/8/4K3 b - - 0 2", board.toFen());
+
+    String fischer = "bqnb1rkr/pp3ppp/3ppn2/2p5/5P2/P2P4/NPP1P1PP/BQ1BNRKR w HFhf - 2 9";
+    board.setupFromFen(fischer);
+    assertEquals(GameType.Fischer, board.getGameType());
+    assertEquals(fischer, board.toFen());
+
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidFen() {
+    Board.create().setupFromFen("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBN w KQkq - 0 1");
+  }
+
 }
@@ -0,0 +1,122 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import chess.engine.BitBoard;
+import chess.engine.Bitboards;
+import chess.engine.Board;
+import chess.engine.BoardInterface;
+import chess.engine.Move;
+import chess.engine.MoveList;
+import chess.engine.pieces.Bishop;
+import chess.engine.pieces.King;
+import chess.engine.pieces.Pawn;
+import chess.engine.pieces.Piece;
+import chess.engine.pieces.Rook;
+import org.junit.Test;
+
+public class MakeMoveTest {
+
+  @Test
+  public void testUnmakeRestoresPosition() {
+    for (BoardInterface board : createBoards()) {
+      assertTrue(board.selectPieceAt(1, 2));
+      assertTrue(board.tryGoTo(3, 2));
+
+      String position = board.toString();
+      MoveList moves = new MoveList();
+      board.generateLegalMoves(moves);
+      int count = moves.size();
+
+      for (int i = 0; i < moves.size(); i++) {
+        board.makeMove(moves.get(i));
+        assertTrue(board.isTopTurn());
+
+        MoveList replies = new MoveList();
+        board.generateLegalMoves(replies);
+        for (int j = 0; j < replies.size(); j++) {
+          board.makeMove(replies.get(j));
+          board.unmakeMove();
+        }
+
+        board.unmakeMove();
+        assertEquals(position, board.toString());
+      }
+
+      MoveList after = new MoveList();
+      board.generateLegalMoves(after);
+      assertEquals(count, after.size());
+    }
+  }
+
+  @Test
+  public void testSpecialMoves() {
+    for (BoardInterface board : createBoards()) {
+      assertTrue(board.selectPieceAt(1, 2));
+      assertTrue(board.tryGoTo(3, 2));
+
+      MoveList moves = new MoveList();
+      board.generateLegalMoves(moves);
+
+      int enPassant = find(moves, Move.EN_PASSANT);
+      String position = board.toString();
+      board.makeMove(enPassant);
+      assertEquals('.', board.toString().charAt(Bitboards.square(3, 2)));
+      assertEquals('p', board.toString().charAt(Bitboards.square(2, 2)));
+      board.unmakeMove();
+      assertEquals(position, board.toString());
+
+      int castling = find(moves, Move.CASTLING);
+      board.makeMove(castling);
+      assertEquals('k', board.toString().charAt(Bitboards.square(7, 6)));
+      assertEquals('r', board.toString().charAt(Bitboards.square(7, 5)));
+      board.unmakeMove();
+      assertEquals(position, board.toString());
+    }
+  }
+
+  @Test
+  public void testPinnedPiece() {
+    Board board = Board.create();
+    board.setupEmptyBoard(true);
+
+    board.addPiece(new King(0, 4, true));
+    board.addPiece(new Bishop(1, 4, true));
+    board.addPiece(new Rook(7, 4, false));
+    board.addPiece(new King(7, 7, false));
+
+    assertTrue(board.selectPieceAt(1, 4));
+    assertFalse(board.tryGoTo(2, 5));
+    assertEquals(4, board.getAt(1, 4).col());
+  }
+
+  private static BoardInterface[] createBoards() {
+    Board board = Board.create();
+    board.setupEmptyBoard(true);
+    BitBoard bitBoard = new BitBoard();
+    bitBoard.setupEmptyBoard(true);
+
+    Piece[] pieces = {
+        new King(0, 4, true), new Pawn(1, 2, true), new Rook(0, 0, true),
+        new King(7, 4, false), new Rook(7, 7, false), new Pawn(3, 3, false),
+        new Pawn(6, 6, false)
+    };
+
+    for (Piece piece : pieces) {
+      board.addPiece(piece);
+      bitBoard.addPiece(piece.getDeepCopy());
+    }
+
+    return new BoardInterface[] {board, bitBoard};
+  }
+
+  private static int find(MoveList moves, int flag) {
+    for (int i = 0; i < moves.size(); i++) {
+      if ((Move.flags(moves.get(i)) & flag) != 0) {
+        return moves.get(i);
+      }
+    }
+    return Move.NONE;
+  }
+
+}
@@ -0,0 +1,94 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import chess.engine.BitBoard;
+import chess.engine.Bitboards;
+import chess.engine.Board;
+import chess.engine.BoardInterface;
+import chess.engine.Move;
+import chess.engine.MoveList;
+import chess.engine.pieces.King;
+import chess.engine.pieces.Pawn;
+import chess.engine.pieces.Rook;
+import org.junit.Test;
+
+public class MoveGenerationTest {
+
+  @Test
+  public void testStandardBoard() {
+    for (BoardInterface board : new BoardInterface[] {Board.create(), new BitBoard()}) {
+      board.setupStandardBoard(false);
+
+      MoveList moves = new MoveList();
+      board.generateLegalMoves(moves);
+
+      assertEquals(20, moves.size());
+      assertTrue(moves.contains(Move.of(Bitboards.square(6, 4), Bitboards.square(4, 4),
+          Move.DOUBLE_PUSH)));
+      assertEquals("e2e4", Move.toString(Move.of(Bitboards.square(6, 4),
+          Bitboards.square(4, 4), Move.DOUBLE_PUSH)));
+    }
+  }
+
+  @Test
+  public void testCastling() {
+    Board board = Board.create();
+    board.setupEmptyBoard(true);
+
+    board.addPiece(new Rook(0, 0, true));
+    board.addPiece(new Rook(0, 7, true));
+    board.addPiece(new King(0, 4, true));
+    board.addPiece(new Rook(7, 3, false));
+    board.addPiece(new King(7, 7, false));
+
+    MoveList moves = new MoveList();
+    board.generateLegalMoves(moves);
+
+    int king = Bitboards.square(0, 4);
+    assertTrue(moves.contains(Move.of(king, Bitboards.square(0, 6), Move.CASTLING)));
+    assertFalse(moves.contains(Move.of(king, Bitboards.square(0, 2), Move.CASTLING)));
+  }
+
+  @Test
+  public void testEnPassant() {
+    Board board = Board.create();
+    board.setupStandardBoard(true);
+
+    board.forceMove(6, 1, 3, 1);
+    assertTrue(board.selectPieceAt(1, 0));
+    assertTrue(board.tryGoTo(3, 0));
+
+    MoveList moves = new MoveList();
+    board.generateLegalMoves(moves);
+
+    assertTrue(moves.contains(Move.of(Bitboards.square(3, 1), Bitboards.square(2, 0),
+        Move.CAPTURE | Move.EN_PASSANT)));
+  }
+
+  @Test
+  public void testPromotion() {
+    BitBoard board = new BitBoard();
+    board.setupEmptyBoard(true);
+
+    board.addPiece(new King(0, 0, true));
+    board.addPiece(new King(7, 7, false));
+    board.addPiece(new Pawn(6, 3, true));
+    board.addPiece(new Rook(7, 4, false));
+
+    MoveList moves = new MoveList();
+    board.generateLegalMoves(moves);
+
+    int promotions = 0;
+    for (int i = 0; i < moves.size(); i++) {
+      if (Move.isPromotion(moves.get(i))) {
+        promotions++;
+      }
+    }
+
+    assertEquals(8, promotions);
+    assertTrue(moves.contains(Move.of(Bitboards.square(6, 3), Bitboards.square(7, 4),
+        Move.CAPTURE, BoardInterface.Promotion.Knight)));
+  }
+
+}
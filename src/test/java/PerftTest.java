@@ -0,0 +1,194 @@
+import static org.junit.Assert.assertEquals;
+
+import chess.engine.BitBoard;
+import chess.engine.Board;
+import chess.engine.BoardInterface;
+import chess.engine.Perft;
+import chess.engine.pieces.Bishop;
+import chess.engine.pieces.King;
+import chess.engine.pieces.Knight;
+import chess.engine.pieces.Pawn;
+import chess.engine.pieces.Piece;
+import chess.engine.pieces.Queen;
+import chess.engine.pieces.Rook;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public class PerftTest {
+
+  private static final Logger logger = LoggerFactory.getLogger(PerftTest.class);
+
+  private static final String START =
+      "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq";
+  private static final String KIWIPETE =
+      "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq";
+  private static final String POSITION_3 =
+      "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w -";
+  private static final String POSITION_4 =
+      "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq";
+  private static final String POSITION_5 =
+      "rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ";
+  private static final String POSITION_6 =
+      "r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w -";
+
+  @Test
+  public void testStartPosition() {
+    assertNodes(START, 20, 400, 8902, 197281);
+  }
+
+  @Test
+  public void testKiwipete() {
+    assertNodes(KIWIPETE, 48, 2039, 97862);
+  }
+
+  @Test
+  public void testPosition3() {
+    assertNodes(POSITION_3, 14, 191, 2812, 43238);
+  }
+
+  @Test
+  public void testPosition4() {
+    assertNodes(POSITION_4, 6, 264, 9467);
+  }
+
+  @Test
+  public void testPosition5() {
+    assertNodes(POSITION_5, 44, 1486, 62379);
+  }
+
+  @Test
+  public void testPosition6() {
+    assertNodes(POSITION_6, 46, 2079, 89890);
+  }
+
+  @Test
+  public void testDivide() {
+    BoardInterface board = new BitBoard();
+    setup(board, KIWIPETE);
+
+    Map<String, Long> divide = new Perft(board).divide(2);
+
+    assertEquals(48, divide.size());
+    assertEquals(2039, divide.values().stream().mapToLong(Long::longValue).sum());
+    assertEquals(Long.valueOf(43), divide.get("e1g1"));
+  }
+
+  @Test
+  public void testBoardPerft() {
+    Board board = Board.create();
+
+    board.setupFromFen(KIWIPETE);
+    assertEquals(2039, new Perft(board).perft(2));
+
+    board.setupFromFen(POSITION_3);
+    assertEquals(191, new Perft(board).perft(2));
+
+    board.setupFromFen(POSITION_4);
+    assertEquals(264, new Perft(board).perft(2));
+
+    board.setupFromFen(POSITION_5);
+    assertEquals(1486, new Perft(board).perft(2));
+  }
+
+  /**
+   * Checks the node count of every depth on the bitboard implementation and logs the throughput
+   * of the deepest one.
+   */
+  private static void assertNodes(String position, long... nodes) {
+    BoardInterface board = new BitBoard();
+    setup(board, position);
+    Perft perft = new Perft(board);
+
+    for (int depth = 1; depth <= nodes.length; depth++) {
+      long start = System.nanoTime();
+      assertEquals(nodes[depth - 1], perft.perft(depth));
+      long elapsed = Math.max(System.nanoTime() - start, 1);
+
+      if (depth == nodes.length) {
+        logger.info("perft({}) = {} in {} ms, {} nodes/s", depth, nodes[depth - 1],
+            elapsed / 1_000_000, nodes[depth - 1] * 1_000_000_000L / elapsed);
+      }
+    }
+  }
+
+  /**
+   * Sets up a position from the first three fields of a FEN string: piece placement, the team to
+   * move and castling rights. Rows are counted from the eighth rank, so black is the top team.
+   */
+  private static void setup(BoardInterface board, String fen) {
+    String[] fields = fen.split(" ");
+    List<Piece> pieces = new ArrayList<>();
+
+    String[] rows = fields[0].split("/");
+    for (int row = 0; row < rows.length; row++) {
+      int col = 0;
+      for (char c : rows[row].toCharArray()) {
+        if (Character.isDigit(c)) {
+          col += c - '0';
+          continue;
+        }
+
+        pieces.add(createPiece(c, row, col++));
+      }
+    }
+
+    for (Piece piece : pieces) {
+      if (piece instanceof King && !hasCastlingRight(fields[2], piece, pieces)) {
+        piece.restore(piece.row(), piece.col(), true);
+      }
+    }
+
+    board.setupEmptyBoard(fields[1].equals("b"));
+    for (Piece piece : pieces) {
+      if (board instanceof BitBoard) {
+        ((BitBoard) board).addPiece(piece);
+      } else {
+        ((Board) board).addPiece(piece);
+      }
+    }
+  }
+
+  /**
+   * Marks the rooks without castling rights as moved and returns whether the king has any right
+   * left.
+   */
+  private static boolean hasCastlingRight(String castling, Piece king, List<Piece> pieces) {
+    boolean hasRight = false;
+    for (Piece rook : pieces) {
+      if (!(rook instanceof Rook) || rook.isTop() != king.isTop() || rook.row() != king.row()) {
+        continue;
+      }
+
+      char right = rook.col() < king.col() ? 'Q' : 'K';
+      if (castling.indexOf(king.isTop() ? Character.toLowerCase(right) : right) >= 0) {
+        hasRight = true;
+      } else {
+        rook.restore(rook.row(), rook.col(), true);
+      }
+    }
+    return hasRight;
+  }
+
+  private static Piece createPiece(char c, int row, int col) {
+    boolean isTop = Character.isLowerCase(c);
+    switch (Character.toLowerCase(c)) {
+      case 'p':
+        return new Pawn(row, col, isTop);
+      case 'n':
+        return new Knight(row, col, isTop);
+      case 'b':
+        return new Bishop(row, col, isTop);
+      case 'r':
+        return new Rook(row, col, isTop);
+      case 'q':
+        return new Queen(row, col, isTop);
+      default:
+        return new King(row, col, isTop);
+    }
+  }
+
+}
@@ -0,0 +1,130 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import chess.engine.BitBoard;
+import chess.engine.Board;
+import chess.engine.BoardInterface;
+import chess.engine.MoveList;
+import chess.engine.pieces.King;
+import chess.engine.pieces.Rook;
+import org.junit.Test;
+
+public class PositionKeyTest {
+
+  @Test
+  public void testTransposition() {
+    for (BoardInterface board : new BoardInterface[] {Board.create(), new BitBoard()}) {
+      board.setupStandardBoard(false);
+      long start = board.positionKey();
+
+      play(board, new int[][] {{7, 6, 5, 5}, {0, 6, 2, 5}, {7, 1, 5, 2}, {0, 1, 2, 2}});
+      long first = board.positionKey();
+      assertNotEquals(start, first);
+
+      board.setupStandardBoard(false);
+      assertEquals(start, board.positionKey());
+
+      play(board, new int[][] {{7, 1, 5, 2}, {0, 1, 2, 2}, {7, 6, 5, 5}, {0, 6, 2, 5}});
+      assertEquals(first, board.positionKey());
+
+      play(board, new int[][] {{5, 5, 7, 6}, {2, 5, 0, 6}, {5, 2, 7, 1}, {2, 2, 0, 1}});
+      assertEquals(start, board.positionKey());
+    }
+  }
+
+  @Test
+  public void testSameKeyAsBitBoard() {
+    Board board = Board.create();
+    board.setupStandardBoard(false);
+    BitBoard bitBoard = new BitBoard();
+    bitBoard.setupStandardBoard(false);
+
+    int[][] moves = {
+        {6, 4, 4, 4}, {1, 3, 3, 3}, {4, 4, 3, 3}, {1, 2, 3, 2}, {3, 3, 2, 2}, {0, 3, 2, 3},
+        {7, 6, 5, 5}, {2, 3, 2, 2}, {7, 5, 4, 2}, {0, 6, 2, 5}
+    };
+
+    for (int[] move : moves) {
+      play(board, new int[][] {move});
+      play(bitBoard, new int[][] {move});
+      assertEquals(board.positionKey(), bitBoard.positionKey());
+    }
+
+    assertTrue(board.selectPieceAt(7, 4));
+    assertTrue(board.doCastling(false));
+    assertTrue(bitBoard.selectPieceAt(7, 4));
+    assertTrue(bitBoard.doCastling(false));
+    assertEquals(board.positionKey(), bitBoard.positionKey());
+  }
+
+  @Test
+  public void testEnPassantAndCastlingRights() {
+    for (BoardInterface any : new BoardInterface[] {Board.create(), new BitBoard()}) {
+      any.setupStandardBoard(false);
+      play(any, new int[][] {{6, 4, 4, 4}, {1, 4, 3, 4}});
+      long uncapturable = any.positionKey();
+
+      any.setupStandardBoard(false);
+      play(any, new int[][] {{6, 4, 5, 4}, {1, 4, 2, 4}, {5, 4, 4, 4}, {2, 4, 3, 4}});
+      assertEquals(uncapturable, any.positionKey());
+
+      any.setupStandardBoard(false);
+      play(any, new int[][] {{6, 4, 4, 4}, {1, 0, 2, 0}, {4, 4, 3, 4}, {1, 3, 3, 3}});
+      long capturable = any.positionKey();
+
+      any.setupStandardBoard(false);
+      play(any, new int[][] {
+          {6, 4, 5, 4}, {1, 0, 2, 0}, {5, 4, 4, 4}, {1, 3, 2, 3}, {4, 4, 3, 4}, {2, 3, 3, 3}
+      });
+      assertNotEquals(capturable, any.positionKey());
+    }
+
+    Board board = Board.create();
+    board.setupEmptyBoard(false);
+    board.addPiece(new King(7, 4, false));
+    board.addPiece(new Rook(7, 7, false));
+    board.addPiece(new King(0, 4, true));
+    long canCastle = board.positionKey();
+
+    play(board, new int[][] {{7, 7, 6, 7}, {0, 4, 0, 3}, {6, 7, 7, 7}, {0, 3, 0, 4}});
+    assertNotEquals(canCastle, board.positionKey());
+  }
+
+  @Test
+  public void testMakeAndUnmake() {
+    for (BoardInterface board : new BoardInterface[] {Board.create(), new BitBoard()}) {
+      board.setupStandardBoard(false);
+      play(board, new int[][] {{6, 4, 4, 4}, {1, 3, 3, 3}});
+      long key = board.positionKey();
+
+      MoveList moves = new MoveList();
+      board.generateLegalMoves(moves);
+      for (int i = 0; i < moves.size(); i++) {
+        board.makeMove(moves.get(i));
+        assertNotEquals(key, board.positionKey());
+        board.unmakeMove();
+        assertEquals(key, board.positionKey());
+      }
+    }
+  }
+
+  @Test
+  public void testFischer() {
+    Board board = Board.create();
+    board.setupFischerBoard(false);
+    BitBoard bitBoard = new BitBoard();
+    bitBoard.setupEmptyBoard(false);
+    board.getPieces().forEach(m -> bitBoard.addPiece(m.getDeepCopy()));
+
+    assertEquals(board.positionKey(), bitBoard.positionKey());
+  }
+
+  private static void play(BoardInterface board, int[][] moves) {
+    for (int[] move : moves) {
+      assertTrue(board.selectPieceAt(move[0], move[1]));
+      assertTrue(board.tryGoTo(move[2], move[3]));
+    }
+  }
+
+}
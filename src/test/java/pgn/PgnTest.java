@@ -0,0 +1,138 @@
+package pgn;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import chess.engine.Board;
+import chess.engine.BoardInterface.State;
+import chess.engine.pgn.PgnReader;
+import chess.engine.pgn.PgnWriter;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import org.junit.Test;
+
+public class PgnTest {
+
+  private static final String SCHOLARS_MATE = "[Event \"Test\"]\n"
+      + "[Site \"?\"]\n"
+      + "[Result \"1-0\"]\n"
+      + "\n"
+      + "1. e4 e5 2. Bc4 {attack f7} Nc6 (2... Nf6 3. d3) 3. Qh5 Nf6?? $4 4. Qxf7# 1-0\n"
+      + "\n";
+
+  private static final String FROM_FEN = "[FEN \"4k3/1P6/8/3pP3/8/8/8/R3K2R w KQ d6 0 1\"]\n"
+      + "[SetUp \"1\"]\n"
+      + "\n"
+      + "1.exd6 e.p. Kd7 2.b8=Q Kc6 3.O-O-O *\n";
+
+  private static final String KNIGHTS = "[Result \"*\"]\n"
+      + "\n"
+      + "1. Nf3 Nf6 2. Nc3 Nc6 3. Nd4 Nd5 4. Ndb5 Ndb4 *\n"
+      + "\n";
+
+  @Test
+  public void testReadGames() throws IOException {
+    Board board = Board.create();
+    PgnReader reader = reader(SCHOLARS_MATE + FROM_FEN);
+
+    assertTrue(reader.readGame(board));
+    assertEquals(7, board.getHistory().size());
+    assertEquals(State.Checkmate, board.getGameState());
+    assertEquals("1-0", reader.getResult().toString());
+
+    assertTrue(reader.readGame(board));
+    assertEquals("1Q6/8/2kP4/8/8/8/8/2KR3R b - - 2 3", board.toFen());
+    assertEquals("*", reader.getResult().toString());
+
+    assertFalse(reader.readGame(board));
+    assertEquals(2, reader.getGames());
+  }
+
+  @Test
+  public void testIllegalMove() throws IOException {
+    Board board = Board.create();
+    PgnReader reader = reader("1. e4 e5 2. Ke3 Nc6 1-0\n\n" + KNIGHTS);
+
+    try {
+      reader.readGame(board);
+      fail();
+    } catch (IllegalArgumentException e) {
+      assertEquals("Illegal move Ke3 at ply 3", e.getMessage());
+    }
+
+    assertTrue(reader.readGame(board));
+    assertEquals(8, board.getHistory().size());
+  }
+
+  @Test
+  public void testZeroCastling() throws IOException {
+    Board board = Board.create();
+    PgnReader reader = reader("1. e4 e5 2. Nf3 Nc6 3. Bc4 Bc5 4. 0-0 Nf6 1-0\n\n" + KNIGHTS);
+
+    assertTrue(reader.readGame(board));
+    assertEquals(8, board.getHistory().size());
+    assertEquals("r1bqk2r/pppp1ppp/2n2n2/2b1p3/2B1P3/5N2/PPPP1PPP/RNBQ1RK1 w kq - 6 5",
+        board.toFen());
+    assertEquals("1-0", reader.getResult().toString());
+
+    assertTrue(reader.readGame(board));
+    assertEquals("*", reader.getResult().toString());
+    assertFalse(reader.readGame(board));
+    assertEquals(2, reader.getGames());
+  }
+
+  @Test
+  public void testCastlingWithOneRook() throws IOException {
+    Board board = Board.create();
+    PgnReader reader = reader("1. Nf3 g6 2. g3 Bg7 3. b4 Bxa1 4. Bg2 Nf6 5. O-O O-O *\n\n"
+        + KNIGHTS);
+
+    assertTrue(reader.readGame(board));
+    assertEquals(10, board.getHistory().size());
+    assertEquals("rnbq1rk1/pppppp1p/5np1/8/1P6/5NP1/P1PPPPBP/bNBQ1RK1 w - - 4 6",
+        board.toFen());
+
+    assertTrue(reader.readGame(board));
+    assertEquals(8, board.getHistory().size());
+  }
+
+  @Test
+  public void testWriteGames() throws IOException {
+    Board board = Board.create();
+    PgnReader reader = reader(SCHOLARS_MATE + FROM_FEN + KNIGHTS);
+    StringBuilder out = new StringBuilder();
+    PgnWriter writer = new PgnWriter(out);
+
+    reader.readGame(board);
+    writer.writeTag("Event", "Test");
+    writer.writeTag("Site", "?");
+    writer.writeGame(board);
+    assertEquals(SCHOLARS_MATE.replace("{attack f7} ", "").replace(" (2... Nf6 3. d3)", "")
+        .replace("?? $4", ""), out.toString());
+
+    out.setLength(0);
+    reader.readGame(board);
+    writer.writeGame(board);
+    assertEquals("[Result \"*\"]\n"
+        + "[SetUp \"1\"]\n"
+        + "[FEN \"4k3/1P6/8/3pP3/8/8/8/R3K2R w KQ d6 0 1\"]\n"
+        + "\n"
+        + "1. exd6 Kd7 2. b8=Q Kc6 3. O-O-O *\n"
+        + "\n", out.toString());
+
+    out.setLength(0);
+    reader.readGame(board);
+    writer.writeGame(board);
+    assertEquals(KNIGHTS, out.toString());
+  }
+
+  private static PgnReader reader(String pgn) {
+    return new PgnReader(Channels.newChannel(
+        new ByteArrayInputStream(pgn.getBytes(StandardCharsets.US_ASCII))));
+  }
+
+}
@@ -1,13 +1,20 @@
 package pieces;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
+import chess.engine.Bitboards;
+import chess.engine.BoardInterface.Promotion;
 import chess.engine.pieces.King;
 import chess.engine.pieces.Knight;
 import chess.engine.pieces.Pawn;
 import chess.engine.pieces.Piece;
 import chess.engine.pieces.Queen;
+import chess.engine.pieces.Rook;
 import chess.engine.pieces.Square;
+import chess.engine.pieces.SquareSet;
+import java.util.HashSet;
 import java.util.Set;
 import org.junit.Test;
 
@@ -104,6 +111,65 @@ public class PositionsTest {
 
   }
 
+  @Test
+  public void testPawnAttacks() {
+    Piece top = new Pawn(1, 0, true);
+    Piece bottom = new Pawn(6, 4, false);
+
+    assertEquals(Bitboards.bit(Bitboards.square(2, 1)), top.getAttackMask());
+    assertEquals(Bitboards.bit(Bitboards.square(5, 3)) | Bitboards.bit(Bitboards.square(5, 5)),
+        bottom.getAttackMask());
+
+  }
+
+  @Test
+  public void testCopiedPositions() {
+    Piece pawn = new Pawn(6, 4, false);
+    pawn.moveTo(5, 4);
+    Piece copy = pawn.getDeepCopy();
+
+    assertEquals(pawn.getPositionMask(), copy.getPositionMask());
+    assertEquals(1, Long.bitCount(copy.getPositionMask()));
+    assertEquals(2, Long.bitCount(new Knight(0, 0, true).getPositionMask()));
+
+  }
+
+  @Test
+  public void testDeepCopy() {
+    Piece rook = new Rook(7, 0, false);
+    rook.moveTo(4, 0);
+    rook.setState(Piece.State.Selected);
+    Piece copy = rook.getDeepCopy();
+
+    assertTrue(copy instanceof Rook);
+    assertTrue(copy.isAt(4, 0) && copy.hasMoved() && !copy.isTop());
+    assertEquals(Piece.State.Selected, copy.getState());
+
+    copy.moveTo(4, 4);
+    assertTrue(rook.isAt(4, 0));
+
+    Piece knight = Promotion.Knight.create(0, 3, false);
+    assertTrue(knight instanceof Knight && knight.isAt(0, 3) && !knight.hasMoved());
+
+  }
+
+  @Test
+  public void testSquareSet() {
+    SquareSet positions = new Knight(0, 0, true).getPossiblePositions();
+
+    assertEquals(2, positions.size());
+    assertTrue(positions.contains(1, 2));
+    assertTrue(positions.contains(Square.of("C7")));
+    assertFalse(positions.contains(0, 0));
+    assertFalse(positions.contains(-1, 2));
+    assertTrue(positions.stream().allMatch(m -> m == Square.of(m.row(), m.col())));
+
+    Set<Square> copy = new HashSet<>(positions);
+    copy.add(new Square(1, 2));
+    assertEquals(positions, copy);
+
+  }
+
   private static void positionsMatch(Piece piece, int[][] correct) {
     Set<Square> positions = piece.getPossiblePositions();
     for (int i = 0; i < correct.length; i++) {
@@ -10,7 +10,7 @@ public class EnPassantTest {
 
   @Test
   public void testEnPassantNormal() {
-    Board board = Board.getInstance().getEngine();
+    Board board = Board.create();
     board.setupStandardBoard(true);
 
     board.forceMove(6, 1, 3, 1);
@@ -23,7 +23,7 @@ public class EnPassantTest {
 
   @Test
   public void testEnPassantOneSquareOnly() {
-    Board board = Board.getInstance().getEngine();
+    Board board = Board.create();
     board.setupStandardBoard(true);
 
     board.forceMove(6, 1, 3, 1);
@@ -37,7 +37,7 @@ public class EnPassantTest {
 
   @Test
   public void testEnPassantMultipleActions() {
-    Board board = Board.getInstance().getEngine();
+    Board board = Board.create();
     board.setupStandardBoard(true);
 
     board.forceMove(6, 1, 4, 1);
@@ -1,6 +1,7 @@
 package rules;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 import chess.engine.Board;
@@ -12,7 +13,7 @@ public class KingCastlingTest {
 
   @Test
   public void testCastling() {
-    Board board = Board.getInstance().getEngine();
+    Board board = Board.create();
     board.setupEmptyBoard(true);
 
     board.addPiece(new Rook(0, 0, true));
@@ -30,4 +31,17 @@ public class KingCastlingTest {
 
   }
 
+  @Test
+  public void testCastlingAfterKingMoved() {
+    Board board = Board.create();
+    board.setupFromFen("r3k2r/8/8/8/8/8/8/R4K1R w - - 0 1");
+    int turn = board.getTurn();
+
+    assertFalse(board.doCastling(false));
+
+    assertEquals(turn, board.getTurn());
+    assertEquals(board.getAt(7, 5).getClass(), King.class);
+    assertEquals(board.getAt(7, 7).getClass(), Rook.class);
+  }
+
 }
@@ -1,16 +1,21 @@
 package rules;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 import chess.engine.Board;
+import chess.engine.pieces.King;
+import chess.engine.pieces.Knight;
+import chess.engine.pieces.Pawn;
+import chess.engine.pieces.Queen;
 import org.junit.Test;
 
 public class NoOverlapTest {
 
   @Test
   public void testNoOverlap() {
-    Board board = Board.getInstance().getEngine();
+    Board board = Board.create();
     board.setupStandardBoard(true);
 
     assertTrue(board.selectPieceAt(0, 0));
@@ -23,11 +28,54 @@ public class NoOverlapTest {
 
   @Test
   public void testKnightOverlap() {
-    Board board = Board.getInstance().getEngine();
+    Board board = Board.create();
     board.setupStandardBoard(true);
 
     assertTrue(board.selectPieceAt(0, 1));
     assertTrue(board.tryGoTo(2, 2));
   }
 
+  @Test
+  public void testSliderOverlap() {
+    Board board = Board.create();
+    board.setupEmptyBoard(false);
+    board.addPiece(new King(7, 4, false));
+    board.addPiece(new King(0, 7, true));
+    board.addPiece(new Queen(4, 4, false));
+    board.addPiece(new Pawn(2, 4, true));
+    board.addPiece(new Pawn(6, 1, false));
+    board.addPiece(new Knight(5, 1, true));
+
+    assertTrue(board.selectPieceAt(4, 4));
+    assertFalse(board.tryGoTo(1, 4));
+    assertTrue(board.tryGoTo(1, 1));
+
+    assertTrue(board.selectPieceAt(2, 4));
+    assertTrue(board.tryGoTo(3, 4));
+
+    assertTrue(board.selectPieceAt(6, 1));
+    assertFalse(board.tryGoTo(4, 1));
+
+  }
+
+  @Test
+  public void testCastlingOverlap() {
+    String fen = "r1bqk1nr/pp1pppb1/n1p3pp/8/P3P3/2P2QPN/1P1P1P1P/RNB1KB1R b KQkq - 2 6";
+    Board board = Board.create();
+    board.setupFromFen(fen);
+
+    assertTrue(board.selectPieceAt(0, 4));
+    assertFalse(board.doCastling(false));
+    assertFalse(board.doCastling(true));
+    assertEquals(fen, board.toFen());
+    assertEquals(32, Long.bitCount(board.getOccupied()));
+
+    board.setupFromFen("rn2k2r/8/8/8/8/8/8/4K3 b kq - 0 1");
+    assertTrue(board.selectPieceAt(0, 4));
+    assertFalse(board.doCastling(true));
+    assertTrue(board.doCastling(false));
+    assertEquals("rn3rk1/8/8/8/8/8/8/4K3 w - - 1 2", board.toFen());
+
+  }
+
 }
@@ -13,7 +13,7 @@ public class PawnPromotionTest {
 
   @Test
   public void testQueenPromotion() {
-    Board board = Board.getInstance().getEngine();
+    Board board = Board.create();
     board.setupStandardBoard(true);
 
     Piece piece = board.getAt(1, 0);
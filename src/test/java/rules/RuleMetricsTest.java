@@ -0,0 +1,41 @@
+package rules;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import chess.engine.Board;
+import chess.engine.rules.Rule;
+import chess.engine.rules.RuleMetrics;
+import chess.engine.rules.RuleMetrics.Counter;
+import org.junit.Test;
+
+public class RuleMetricsTest {
+
+  @Test
+  public void testCounters() {
+    Board board = Board.create();
+    board.setupStandardBoard(false);
+    RuleMetrics.setEnabled(true);
+    RuleMetrics.reset();
+
+    assertTrue(board.selectPieceAt(7, 1));
+    assertFalse(board.tryGoTo(4, 1));
+
+    Counter movement = RuleMetrics.getCounter(Rule.MOVEMENT);
+    Counter noCheck = RuleMetrics.getCounter(Rule.NO_CHECK);
+    assertEquals(1, movement.getNotPassed());
+    assertEquals(0, noCheck.getInvocations());
+
+    assertTrue(board.selectPieceAt(7, 1));
+    assertTrue(board.tryGoTo(5, 2));
+
+    assertEquals(1, movement.getPassed());
+    assertEquals(1, noCheck.getPassed());
+    assertTrue(RuleMetrics.getCounters().contains(noCheck));
+
+    RuleMetrics.reset();
+    assertEquals(0, movement.getInvocations());
+  }
+
+}
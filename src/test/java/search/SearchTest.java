@@ -0,0 +1,94 @@
+package search;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import chess.engine.Board;
+import chess.engine.Move;
+import chess.engine.MoveList;
+import chess.engine.search.Search;
+import chess.engine.search.SearchResult;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+
+public class SearchTest {
+
+  private static SearchResult search(String fen, int depth) {
+    Board board = Board.create();
+    board.setupFromFen(fen);
+
+    Search search = new Search(board);
+    search.setMaxDepth(depth);
+    SearchResult result = search.search();
+    assertEquals(fen, board.toFen());
+    return result;
+  }
+
+  @Test
+  public void testMateInOne() {
+    SearchResult result = search("6k1/5ppp/8/8/8/8/8/R5K1 w - - 0 1", 4);
+
+    assertEquals("a1a8", Move.toString(result.getBestMove()));
+    assertTrue(result.isMate());
+    assertEquals(1, result.getMateIn());
+  }
+
+  @Test
+  public void testMateInTwo() {
+    SearchResult result = search("7k/8/8/8/8/8/R7/1R4K1 w - - 0 1", 5);
+
+    assertTrue(result.isMate());
+    assertEquals(2, result.getMateIn());
+    assertEquals(3, result.getPrincipalVariation().length);
+  }
+
+  @Test
+  public void testMated() {
+    SearchResult result = search("k7/8/1K6/8/8/8/8/7R b - - 0 1", 4);
+
+    assertEquals(-1, result.getMateIn());
+  }
+
+  @Test
+  public void testCapture() {
+    SearchResult result = search("4k3/8/8/3q4/8/8/3R4/4K3 w - - 0 1", 3);
+
+    assertEquals("d2d5", Move.toString(result.getBestMove()));
+    assertTrue(result.getScore() > 0);
+  }
+
+  @Test
+  public void testNoMoves() {
+    SearchResult result = search("7k/5Q2/6K1/8/8/8/8/8 b - - 0 1", 3);
+
+    assertEquals(Move.NONE, result.getBestMove());
+    assertEquals(0, result.getScore());
+  }
+
+  @Test
+  public void testLimits() {
+    Board board = Board.create();
+    board.setupStandardBoard(false);
+    String fen = board.toFen();
+
+    List<SearchResult> iterations = new ArrayList<>();
+    Search search = new Search(board);
+    search.setMaxNodes(5_000);
+    search.setListener(iterations::add);
+    SearchResult result = search.search();
+
+    assertEquals(fen, board.toFen());
+    assertFalse(iterations.isEmpty());
+    assertEquals(iterations.get(iterations.size() - 1), result);
+    for (int i = 0; i < iterations.size(); i++) {
+      assertEquals(i + 1, iterations.get(i).getDepth());
+    }
+    assertTrue(result.getNodes() <= 5_000);
+    MoveList moves = new MoveList();
+    board.generateLegalMoves(moves);
+    assertTrue(moves.contains(result.getBestMove()));
+  }
+
+}
@@ -0,0 +1,120 @@
+package search;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import chess.engine.Board;
+import chess.engine.Move;
+import chess.engine.MoveList;
+import chess.engine.search.Search;
+import chess.engine.search.SearchResult;
+import chess.engine.search.TranspositionTable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.Test;
+
+public class TranspositionTableTest {
+
+  private static final String ITALIAN =
+      "r1bqk1nr/pppp1ppp/2n5/2b1p3/2B1P3/5N2/PPPP1PPP/RNBQK2R w KQkq - 4 4";
+
+  @Test
+  public void testStoreAndProbe() {
+    TranspositionTable table = new TranspositionTable(1);
+    assertEquals(1 << 16, table.size());
+
+    int move = Move.of(52, 36, Move.DOUBLE_PUSH);
+    table.store(42L, move, -150, 7, TranspositionTable.LOWER, 3);
+
+    long entry = table.probe(42L);
+    assertEquals(move, TranspositionTable.move(entry));
+    assertEquals(-150, TranspositionTable.score(entry, 5));
+    assertEquals(7, TranspositionTable.depth(entry));
+    assertEquals(TranspositionTable.LOWER, TranspositionTable.bound(entry));
+    assertEquals(0, table.probe(43L));
+
+    table.store(42L, Move.NONE, 10, 8, TranspositionTable.EXACT, 0);
+    assertEquals(move, TranspositionTable.move(table.probe(42L)));
+
+    table.clear();
+    assertEquals(0, table.probe(42L));
+  }
+
+  @Test
+  public void testMateScores() {
+    TranspositionTable table = new TranspositionTable(1);
+    table.store(1L, Move.NONE, Search.MATE - 5, 4, TranspositionTable.EXACT, 2);
+    table.store(2L, Move.NONE, -Search.MATE + 5, 4, TranspositionTable.EXACT, 2);
+
+    assertEquals(Search.MATE - 7, TranspositionTable.score(table.probe(1L), 4));
+    assertEquals(-Search.MATE + 7, TranspositionTable.score(table.probe(2L), 4));
+  }
+
+  @Test
+  public void testReplacement() {
+    TranspositionTable table = new TranspositionTable(1);
+    long buckets = table.size() / 4;
+
+    for (int i = 0; i < 4; i++) {
+      table.store(i * buckets, Move.NONE, 0, 10 + i, TranspositionTable.EXACT, 0);
+    }
+    table.store(4 * buckets, Move.NONE, 0, 20, TranspositionTable.EXACT, 0);
+    assertEquals(0, table.probe(0));
+    assertEquals(11, TranspositionTable.depth(table.probe(buckets)));
+
+    table.newSearch();
+    table.store(5 * buckets, Move.NONE, 0, 1, TranspositionTable.EXACT, 0);
+    assertEquals(0, table.probe(buckets));
+    assertEquals(20, TranspositionTable.depth(table.probe(4 * buckets)));
+
+    table.store(4 * buckets, Move.NONE, 0, 2, TranspositionTable.UPPER, 0);
+    assertEquals(2, TranspositionTable.depth(table.probe(4 * buckets)));
+  }
+
+  @Test
+  public void testReuse() {
+    Board board = Board.create();
+    board.setupFromFen(ITALIAN);
+    TranspositionTable table = new TranspositionTable(4);
+
+    Search search = new Search(board, table);
+    search.setMaxDepth(4);
+    SearchResult first = search.search();
+    SearchResult second = search.search();
+
+    assertEquals(first.getScore(), second.getScore());
+    assertTrue(second.getNodes() < first.getNodes());
+    assertTrue(table.getPermille() > 0);
+  }
+
+  @Test
+  public void testSharedTable() throws InterruptedException, ExecutionException {
+    TranspositionTable table = new TranspositionTable(4);
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    List<Future<SearchResult>> results = new ArrayList<>();
+
+    for (int i = 0; i < 4; i++) {
+      results.add(executor.submit(() -> {
+        Board board = Board.create();
+        board.setupFromFen(ITALIAN);
+        Search search = new Search(board, table);
+        search.setMaxDepth(4);
+        return search.search();
+      }));
+    }
+    executor.shutdown();
+
+    Board board = Board.create();
+    board.setupFromFen(ITALIAN);
+    MoveList moves = new MoveList();
+    board.generateLegalMoves(moves);
+    for (Future<SearchResult> result : results) {
+      assertTrue(moves.contains(result.get().getBestMove()));
+    }
+  }
+
+}
@@ -0,0 +1,111 @@
+package validation;
+
+import static org.junit.Assert.assertEquals;
+
+import chess.engine.BoardInterface.State;
+import chess.validation.ArchiveValidator;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ArchiveValidatorTest {
+
+  private static final String ARCHIVE = "[Event \"Scholar's mate\"]\n"
+      + "[Result \"1-0\"]\n"
+      + "\n"
+      + "1. e4 e5 2. Bc4 Nc6 3. Qh5 Nf6 4. Qxf7# 1-0\n"
+      + "\n"
+      + "[Event \"Illegal\"]\n"
+      + "[Result \"*\"]\n"
+      + "\n"
+      + "1. e4 e5 2. Ke3 {not adjacent\n"
+      + "[to the king]} Nc6 *\n"
+      + "\n"
+      + "[Event \"Stalemate\"]\n"
+      + "[FEN \"7k/8/6K1/8/8/8/8/5Q2 w - - 0 1\"]\n"
+      + "[SetUp \"1\"]\n"
+      + "\n"
+      + "1. Qf7 1/2-1/2\n"
+      + "\n"
+      + "[Event \"Invalid FEN\"]\n"
+      + "[FEN \"8/8/8 w - - 0 1\"]\n"
+      + "\n"
+      + "*\n";
+
+  private static final String GAME = "[Result \"*\"]\n"
+      + "\n"
+      + "1. Nf3 Nf6 2. Nc3 Nc6 *\n"
+      + "\n";
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void testValidate() throws IOException {
+    Path archive = folder.newFile("archive.pgn").toPath();
+    Path results = folder.newFile("results.tsv").toPath();
+    Files.write(archive, ARCHIVE.getBytes(StandardCharsets.UTF_8));
+
+    ForkJoinPool pool = new ForkJoinPool(2);
+    ArchiveValidator.Summary summary;
+    try {
+      summary = new ArchiveValidator(pool, 1).validate(archive, results);
+    } finally {
+      pool.shutdown();
+    }
+
+    assertEquals(4, summary.getGames());
+    assertEquals(2, summary.getIllegalGames());
+    assertEquals(1, summary.getGames(State.Checkmate));
+    assertEquals(1, summary.getGames(State.Stalemate));
+    assertEquals(7 + 2 + 1, summary.getMoves());
+
+    List<String> lines = Files.readAllLines(results, StandardCharsets.UTF_8);
+    assertEquals(5, lines.size());
+    assertEquals("1\t7\tCheckmate\t1-0\t", lines.get(1));
+    assertEquals("2\t2\tIllegal\t*\tIllegal move Ke3 at ply 3", lines.get(2));
+    assertEquals("3\t1\tStalemate\t1/2-1/2\t", lines.get(3));
+    assertEquals(0, lines.get(4).indexOf("4\t0\tIllegal\t*\t"));
+  }
+
+  @Test
+  public void testFailingGame() throws IOException {
+    Path archive = folder.newFile("archive.pgn").toPath();
+    Path results = folder.newFile("results.tsv").toPath();
+    Files.write(archive, (GAME + GAME.replace("Nc6", "Na6") + GAME)
+        .getBytes(StandardCharsets.UTF_8));
+
+    ForkJoinPool pool = new ForkJoinPool(2);
+    ArchiveValidator validator = new ArchiveValidator(pool, 2);
+    validator.setCheck(board -> {
+      if (board.getAt(2, 0) != null) {
+        throw new IllegalStateException("Knight on the rim");
+      }
+    });
+
+    ArchiveValidator.Summary summary;
+    try {
+      summary = validator.validate(archive, results);
+    } finally {
+      pool.shutdown();
+    }
+
+    assertEquals(3, summary.getGames());
+    assertEquals(1, summary.getIllegalGames());
+    assertEquals(2, summary.getGames(State.Normal));
+
+    List<String> lines = Files.readAllLines(results, StandardCharsets.UTF_8);
+    assertEquals(4, lines.size());
+    assertEquals("1\t4\tNormal\t*\t", lines.get(1));
+    assertEquals("2\t4\tIllegal\t*\tjava.lang.IllegalStateException: Knight on the rim",
+        lines.get(2));
+    assertEquals("3\t4\tNormal\t*\t", lines.get(3));
+  }
+
+}